@@ -1,8 +1,16 @@
 package org.jretty.dubbo.api;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.jretty.apibase.Request;
 import org.jretty.apibase.Result;
 import org.jretty.dubbo.dto.HttpRequestDto;
+import org.jretty.dubbo.dto.HttpResponseDto;
+import org.jretty.dubbo.dto.HttpStreamChunk;
+import org.jretty.dubbo.dto.RouteSpec;
 
 /**
  * 通用API：HTTP请求转Dubbo调用
@@ -15,5 +23,70 @@ public interface Http2DubboService {
      * http数据通过dubbo传输，返回json字符串
      */
     Result<String> route(Request<HttpRequestDto> request);
+    
+    /**
+     * http数据通过dubbo传输，返回服务端直接编码好的UTF-8 json字节，网关原样写出，
+     * 避免json字符串被dubbo再序列化一次。服务端未实现时调用route，将json字符串编码为UTF-8字节（code、msg不变）。
+     */
+    default Result<HttpResponseDto> routeBytes(Request<HttpRequestDto> request) {
+        Result<String> result = route(request);
+        return RouteFallbacks.withStatus(result, RouteFallbacks.toResponse(result != null ? result.getData() : null));
+    }
+    
+    /**
+     * 异步版本的route：Controller返回CompletableFuture、DeferredResult、Callable时，
+     * 在结果就绪时才完成dubbo响应，不占用服务端线程。服务端未实现时同步调用route。
+     */
+    default CompletableFuture<Result<String>> routeAsync(Request<HttpRequestDto> request) {
+        return CompletableFuture.completedFuture(route(request));
+    }
+    
+    /**
+     * 批量route：一次dubbo调用携带多个http请求，服务端并发执行，按请求顺序返回各自的结果（失败的请求互不影响）。
+     * 服务端未实现时逐个调用route，按请求顺序返回。
+     */
+    default Result<List<Result<String>>> routeBatch(Request<List<HttpRequestDto>> request) {
+        List<HttpRequestDto> dtos = request.getData();
+        List<Result<String>> results = new ArrayList<Result<String>>(dtos.size());
+        for (HttpRequestDto dto : dtos) {
+            results.add(route(new Request<HttpRequestDto>(dto)));
+        }
+        return Result.create(results);
+    }
+    
+    /**
+     * 流式route：大列表结果按块（UTF-8 json片段）返回，这里返回第一块，
+     * 未结束时网关写出后再通过nextChunk拉取下一块。服务端未实现时调用route，整个结果作为最后一块返回。
+     * <p>
+     * 流的状态保存在打开它的服务实例上，nextChunk、closeStream需要路由到同一个服务实例。
+     */
+    default Result<HttpStreamChunk> routeStream(Request<HttpRequestDto> request) {
+        Result<String> result = route(request);
+        HttpResponseDto resp = RouteFallbacks.toResponse(result != null ? result.getData() : null);
+        return RouteFallbacks.withStatus(result, new HttpStreamChunk(null, 0, resp.getBody(), true));
+    }
+    
+    /**
+     * 拉取流的下一块，参数为streamId
+     * 
+     * @throws IllegalStateException 流不存在（服务端未实现流式route时，routeStream只返回最后一块，不会有下一块）
+     */
+    default Result<HttpStreamChunk> nextChunk(Request<String> request) {
+        throw new IllegalStateException("stream not found: " + request.getData());
+    }
+    
+    /**
+     * 提前结束流（如客户端已断开），参数为streamId。服务端未实现时什么也不做
+     */
+    default void closeStream(Request<String> request) {
+    }
+    
+    /**
+     * 路由清单：每个路由实际读取的header、参数、attribute，以及是否需要body。
+     * 网关据此在序列化之前去掉不需要的数据。服务端未实现时返回空清单（网关不裁剪请求，原样转发）。
+     */
+    default Result<List<RouteSpec>> routeManifest() {
+        return Result.create(Collections.<RouteSpec>emptyList());
+    }
 
 }
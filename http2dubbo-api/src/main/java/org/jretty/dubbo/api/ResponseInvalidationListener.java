@@ -0,0 +1,24 @@
+package org.jretty.dubbo.api;
+
+/**
+ * 响应缓存失效通知：服务端缓存的响应失效时，通知网关丢弃本地缓存的相应条目，不必等到过期。
+ * <p>
+ * 跨进程使用时，由网关将其实现（如NearCacheHttp2DubboService）导出为dubbo服务，
+ * 服务端以 cluster="broadcast" 引用，注册为SpringControllerInvoke的失效监听器，失效时广播给所有网关。
+ * <p>
+ * 代数是每个服务端缓存实例自己的计数器，epoch为该实例的标识，网关按epoch分别记录，只比较同一epoch的代数。
+ * 通知只来自执行失效的那个服务端实例，其他实例缓存的响应要到过期才会更新。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public interface ResponseInvalidationListener {
+
+    /**
+     * @param keyPrefix 失效的请求前缀：请求方法 + 空格 + url前缀，如 "GET /dict/"，空字符串表示全部
+     * @param epoch 执行失效的服务端缓存实例的标识
+     * @param generation 本次失效的代数，该epoch在此之前开始生成的响应都不应再缓存
+     */
+    void onInvalidate(String keyPrefix, String epoch, long generation);
+
+}
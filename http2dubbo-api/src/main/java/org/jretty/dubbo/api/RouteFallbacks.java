@@ -0,0 +1,39 @@
+package org.jretty.dubbo.api;
+
+import java.nio.charset.StandardCharsets;
+
+import org.jretty.apibase.Result;
+import org.jretty.dubbo.dto.HttpResponseDto;
+
+/**
+ * Http2DubboService默认方法的实现：服务端未实现新方法时，转换route的结果，网关仍然可以调用。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+final class RouteFallbacks {
+
+    private RouteFallbacks() {
+    }
+
+    /**
+     * @return 数据为data，code、msg与from相同的结果；from为null时返回null
+     */
+    static <T> Result<T> withStatus(Result<?> from, T data) {
+        if (from == null) {
+            return null;
+        }
+        Result<T> ret = Result.create(data);
+        ret.setCode(from.getCode());
+        ret.setMsg(from.getMsg());
+        return ret;
+    }
+
+    /**
+     * @return json字符串UTF-8编码后的响应，json为null时body为null
+     */
+    static HttpResponseDto toResponse(String json) {
+        return new HttpResponseDto(json != null ? json.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+}
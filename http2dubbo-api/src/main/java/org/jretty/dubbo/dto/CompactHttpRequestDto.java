@@ -0,0 +1,82 @@
+package org.jretty.dubbo.dto;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
+import org.jretty.dubbo.util.HttpRequestCodec;
+
+/**
+ * 以紧凑二进制格式传输的HttpRequestDto（格式见{@link HttpRequestCodec}）。
+ * <p>
+ * 序列化时通过writeReplace替换成只含一个byte[]的{@link Wire}，不再传输各个Map的内部结构和类型描述，
+ * 对端反序列化时通过readResolve还原为普通的HttpRequestDto。
+ * Java序列化、hessian2、fst等支持writeReplace/readResolve的序列化方式都适用。
+ * <p>
+ * 网关开启方式：设置系统属性 -Dhttp2dubbo.dto.compact=true（见{@link #isEnabled()}），
+ * 或者直接用{@link #CompactHttpRequestDto(HttpRequestDto)}包装。服务端需使用同版本的api包。
+ * attributes的值只能是String、Integer、Long、Boolean，否则序列化时抛出IllegalArgumentException。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class CompactHttpRequestDto extends HttpRequestDto {
+    private static final long serialVersionUID = 4839297245946633167L;
+
+    private static final boolean ENABLED = Boolean.getBoolean("http2dubbo.dto.compact");
+
+    public CompactHttpRequestDto() {
+        super();
+    }
+
+    /**
+     * 以紧凑格式传输已有的DTO（共享其数据，不复制）
+     */
+    public CompactHttpRequestDto(HttpRequestDto dto) {
+        super();
+        setAttributes(dto.getAttributes());
+        setCharacterEncoding(dto.getCharacterEncoding());
+        setContentType(dto.getContentType());
+        setMethod(dto.getMethod());
+        setHeaders(dto.getHeaders());
+        setRequestURI(dto.getRequestURI());
+        setRequestedSessionId(dto.getRequestedSessionId());
+        setBodyBytes(dto.getBodyBytes());
+        setBodyCharset(dto.getBodyCharset());
+        if (dto.getBodyBytes() == null) {
+            setBodyString(dto.getBodyString());
+        }
+        setParameters(dto.getParameters());
+    }
+
+    /**
+     * @return 是否开启了紧凑格式（系统属性 http2dubbo.dto.compact=true）
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    protected Object writeReplace() throws ObjectStreamException {
+        return new Wire(HttpRequestCodec.encode(this));
+    }
+
+    /**
+     * 传输时的形式
+     */
+    public static final class Wire implements Serializable {
+        private static final long serialVersionUID = -1209471648402519620L;
+
+        private byte[] data;
+
+        public Wire() {
+            super();
+        }
+
+        Wire(byte[] data) {
+            this.data = data;
+        }
+
+        protected Object readResolve() throws ObjectStreamException {
+            return HttpRequestCodec.decode(data);
+        }
+    }
+}
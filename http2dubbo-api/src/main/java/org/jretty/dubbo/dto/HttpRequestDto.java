@@ -1,12 +1,18 @@
 package org.jretty.dubbo.dto;
 
 import java.io.Serializable;
+import java.nio.charset.Charset;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
-import org.jretty.dubbo.util.LinkedCaseInsensitiveMap;
+import org.jretty.dubbo.util.CaseInsensitiveHeaderMap;
 
 /**
+ * 传给服务端的http请求。
+ * <p>
+ * 网关推荐由SimpleHttpRequest.toDto()生成：直接采用其中的Map（不复制），并调用{@link #freeze()}冻结，
+ * 之后不能再修改。服务端同样直接包装DTO中的Map，不再复制。
+ *
  * @author zollty
  * @since 2021年4月19日
  */
@@ -20,12 +26,21 @@ public class HttpRequestDto implements Serializable {
     private String requestURI;
     private String requestedSessionId;
     private String bodyString;
+    /** 原始body字节，与bodyString二选一，优先使用 */
+    private byte[] bodyBytes;
+    /** bodyBytes的字符集，为null时按UTF-8处理 */
+    private String bodyCharset;
     private Map<String, String[]> parameters;
+    /** 冻结后不能再修改（不参与序列化，对端得到的是未冻结的DTO） */
+    private transient boolean frozen;
 
     public HttpRequestDto() {
         super();
     }
     
+    /**
+     * 复制传入的Map（不需要复制时使用无参构造函数和setter）
+     */
     public HttpRequestDto(Map<String, Object> attributes, String characterEncoding, String contentType,
             String method, Map<String, String> headers, String requestURI, String requestedSessionId, String bodyString,
             Map<String, String[]> parameters) {
@@ -37,10 +52,8 @@ public class HttpRequestDto implements Serializable {
         this.characterEncoding = characterEncoding;
         this.contentType = contentType;
         this.method = method;
-        this.headers = new LinkedCaseInsensitiveMap<>();
-        if (headers != null) {
-            this.headers.putAll(headers);
-        }
+        this.headers = headers != null ? new CaseInsensitiveHeaderMap<String>(headers)
+                : new CaseInsensitiveHeaderMap<String>();
         this.requestURI = requestURI;
         this.requestedSessionId = requestedSessionId;
         this.bodyString = bodyString;
@@ -51,6 +64,30 @@ public class HttpRequestDto implements Serializable {
     }
     
 
+    /**
+     * 冻结DTO：之后调用setter会抛出IllegalStateException。
+     * 各个Map按约定不再修改（为了不额外分配对象，没有包装成只读Map）。
+     * 
+     * @return this
+     */
+    public HttpRequestDto freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * @return 是否已冻结
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    protected void checkFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("HttpRequestDto is frozen");
+        }
+    }
+
     public String getCharacterEncoding() {
         return characterEncoding;
     }
@@ -71,10 +108,30 @@ public class HttpRequestDto implements Serializable {
         return requestURI;
     }
 
+    /**
+     * @return body字符串，只传了bodyBytes时按bodyCharset解码
+     */
     public String getBodyString() {
+        if (bodyString == null && bodyBytes != null) {
+            return new String(bodyBytes, Charset.forName(bodyCharset != null ? bodyCharset : "UTF-8"));
+        }
         return bodyString;
     }
 
+    /**
+     * @return the bodyBytes
+     */
+    public byte[] getBodyBytes() {
+        return bodyBytes;
+    }
+
+    /**
+     * @return the bodyCharset
+     */
+    public String getBodyCharset() {
+        return bodyCharset;
+    }
+
     /**
      * @return the attributes
      */
@@ -86,6 +143,7 @@ public class HttpRequestDto implements Serializable {
      * @param attributes the attributes to set
      */
     public void setAttributes(Map<String, Object> attributes) {
+        checkFrozen();
         this.attributes = attributes;
     }
 
@@ -100,6 +158,7 @@ public class HttpRequestDto implements Serializable {
      * @param headers the headers to set
      */
     public void setHeaders(Map<String, String> headers) {
+        checkFrozen();
         this.headers = headers;
     }
 
@@ -114,6 +173,7 @@ public class HttpRequestDto implements Serializable {
      * @param parameters the parameters to set
      */
     public void setParameters(Map<String, String[]> parameters) {
+        checkFrozen();
         this.parameters = parameters;
     }
 
@@ -121,6 +181,7 @@ public class HttpRequestDto implements Serializable {
      * @param characterEncoding the characterEncoding to set
      */
     public void setCharacterEncoding(String characterEncoding) {
+        checkFrozen();
         this.characterEncoding = characterEncoding;
     }
 
@@ -128,6 +189,7 @@ public class HttpRequestDto implements Serializable {
      * @param contentType the contentType to set
      */
     public void setContentType(String contentType) {
+        checkFrozen();
         this.contentType = contentType;
     }
 
@@ -135,6 +197,7 @@ public class HttpRequestDto implements Serializable {
      * @param method the method to set
      */
     public void setMethod(String method) {
+        checkFrozen();
         this.method = method;
     }
 
@@ -142,6 +205,7 @@ public class HttpRequestDto implements Serializable {
      * @param requestURI the requestURI to set
      */
     public void setRequestURI(String requestURI) {
+        checkFrozen();
         this.requestURI = requestURI;
     }
 
@@ -149,6 +213,7 @@ public class HttpRequestDto implements Serializable {
      * @param requestedSessionId the requestedSessionId to set
      */
     public void setRequestedSessionId(String requestedSessionId) {
+        checkFrozen();
         this.requestedSessionId = requestedSessionId;
     }
 
@@ -156,6 +221,23 @@ public class HttpRequestDto implements Serializable {
      * @param bodyString the bodyString to set
      */
     public void setBodyString(String bodyString) {
+        checkFrozen();
         this.bodyString = bodyString;
     }
+
+    /**
+     * @param bodyBytes the bodyBytes to set
+     */
+    public void setBodyBytes(byte[] bodyBytes) {
+        checkFrozen();
+        this.bodyBytes = bodyBytes;
+    }
+
+    /**
+     * @param bodyCharset the bodyCharset to set
+     */
+    public void setBodyCharset(String bodyCharset) {
+        checkFrozen();
+        this.bodyCharset = bodyCharset;
+    }
 }
@@ -0,0 +1,141 @@
+package org.jretty.dubbo.dto;
+
+import java.io.Serializable;
+
+/**
+ * 已编码的http响应：body为服务端直接序列化好的字节，网关原样写到输出流即可。
+ * <p>
+ * 服务端开启了响应缓存的路由，maxAge为响应还可以缓存的时间，网关可以在本地缓存
+ * （见NearCacheHttp2DubboService），generation为服务端开始生成该响应时的失效代数，epoch为该服务端缓存实例的标识，
+ * 用于丢弃在失效通知之前生成、之后才到达的响应。
+ * <p>
+ * GET、HEAD请求的响应带有etag（响应字节的hash或资源版本）。请求的If-None-Match匹配时，
+ * 返回status为304（NOT_MODIFIED）、body为null的响应，网关原样返回304即可。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class HttpResponseDto implements Serializable {
+    private static final long serialVersionUID = 3650470425389651743L;
+
+    public static final String JSON_UTF8 = "application/json;charset=UTF-8";
+
+    public static final int NOT_MODIFIED = 304;
+
+    private int status = 200;
+    private String contentType = JSON_UTF8;
+    private byte[] body;
+    /** 可以缓存的时间（毫秒），0表示不可缓存 */
+    private long maxAge;
+    private String epoch;
+    private long generation;
+    /** 强校验的ETag（含双引号） */
+    private String etag;
+
+    public HttpResponseDto() {
+        super();
+    }
+
+    public HttpResponseDto(byte[] body) {
+        super();
+        this.body = body;
+    }
+
+    /**
+     * @return the status
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @param status the status to set
+     */
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the contentType
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @param contentType the contentType to set
+     */
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * @return the body
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @param body the body to set
+     */
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    /**
+     * @return 可以缓存的时间（毫秒），0表示不可缓存
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * @param maxAge the maxAge to set
+     */
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * @return 生成该响应的服务端缓存实例的标识，失效代数只在同一epoch内比较
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @param epoch the epoch to set
+     */
+    public void setEpoch(String epoch) {
+        this.epoch = epoch;
+    }
+
+    /**
+     * @return 服务端开始生成该响应时的失效代数
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @param generation the generation to set
+     */
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * @return 强校验的ETag（含双引号），null表示没有
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @param etag the etag to set
+     */
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+}
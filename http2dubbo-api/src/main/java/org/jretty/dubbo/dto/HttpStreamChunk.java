@@ -0,0 +1,87 @@
+package org.jretty.dubbo.dto;
+
+import java.io.Serializable;
+
+/**
+ * 流式响应的一块数据（已编码的UTF-8 json片段），按顺序拼接即为完整的响应body。
+ * 网关写出一块之后再拉取下一块，直到last为true。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class HttpStreamChunk implements Serializable {
+    private static final long serialVersionUID = -2651733508921907186L;
+
+    private String streamId;
+    private int seq;
+    private byte[] data;
+    private boolean last;
+
+    public HttpStreamChunk() {
+        super();
+    }
+
+    public HttpStreamChunk(String streamId, int seq, byte[] data, boolean last) {
+        super();
+        this.streamId = streamId;
+        this.seq = seq;
+        this.data = data;
+        this.last = last;
+    }
+
+    /**
+     * @return 流的id，用于拉取下一块；last为true时已无后续数据
+     */
+    public String getStreamId() {
+        return streamId;
+    }
+
+    /**
+     * @param streamId the streamId to set
+     */
+    public void setStreamId(String streamId) {
+        this.streamId = streamId;
+    }
+
+    /**
+     * @return 块序号，从0开始
+     */
+    public int getSeq() {
+        return seq;
+    }
+
+    /**
+     * @param seq the seq to set
+     */
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    /**
+     * @return the data
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @param data the data to set
+     */
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * @return 是否为最后一块
+     */
+    public boolean isLast() {
+        return last;
+    }
+
+    /**
+     * @param last the last to set
+     */
+    public void setLast(boolean last) {
+        this.last = last;
+    }
+}
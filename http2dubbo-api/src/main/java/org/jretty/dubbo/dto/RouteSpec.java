@@ -0,0 +1,135 @@
+package org.jretty.dubbo.dto;
+
+import java.io.Serializable;
+
+/**
+ * 服务端一个Controller方法（路由）实际读取的请求数据：用到的header、参数、attribute名称，以及是否需要body。
+ * 由服务端在解析Controller时生成并发布，网关据此在序列化之前去掉不需要的数据。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RouteSpec implements Serializable {
+    private static final long serialVersionUID = -5902473011585240963L;
+
+    private String methodType;
+    private String classUrl;
+    private String url;
+    private String[] headers;
+    private String[] params;
+    private String[] attributes;
+    private boolean allParams;
+    private boolean body;
+
+    /**
+     * @return 请求方法（GET、POST等），不限时为ALL
+     */
+    public String getMethodType() {
+        return methodType;
+    }
+
+    /**
+     * @param methodType the methodType to set
+     */
+    public void setMethodType(String methodType) {
+        this.methodType = methodType;
+    }
+
+    /**
+     * @return Controller类的url
+     */
+    public String getClassUrl() {
+        return classUrl;
+    }
+
+    /**
+     * @param classUrl the classUrl to set
+     */
+    public void setClassUrl(String classUrl) {
+        this.classUrl = classUrl;
+    }
+
+    /**
+     * @return 方法的完整url（可以含有{}、*等），为null时表示匹配classUrl下的所有路径
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @param url the url to set
+     */
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    /**
+     * @return 用到的header名称
+     */
+    public String[] getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @param headers the headers to set
+     */
+    public void setHeaders(String[] headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * @return 用到的参数名称
+     */
+    public String[] getParams() {
+        return params;
+    }
+
+    /**
+     * @param params the params to set
+     */
+    public void setParams(String[] params) {
+        this.params = params;
+    }
+
+    /**
+     * @return 用到的attribute名称
+     */
+    public String[] getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @param attributes the attributes to set
+     */
+    public void setAttributes(String[] attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * @return 是否需要全部参数（参数名称无法确定时）
+     */
+    public boolean isAllParams() {
+        return allParams;
+    }
+
+    /**
+     * @param allParams the allParams to set
+     */
+    public void setAllParams(boolean allParams) {
+        this.allParams = allParams;
+    }
+
+    /**
+     * @return 是否需要body
+     */
+    public boolean isBody() {
+        return body;
+    }
+
+    /**
+     * @param body the body to set
+     */
+    public void setBody(boolean body) {
+        this.body = body;
+    }
+}
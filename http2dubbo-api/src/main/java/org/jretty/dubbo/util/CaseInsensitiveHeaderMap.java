@@ -0,0 +1,405 @@
+package org.jretty.dubbo.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 不区分大小写的Map，用于http header，替代{@link LinkedCaseInsensitiveMap}。
+ * <p>
+ * 键值按插入顺序保存在数组中，另用一个开放寻址（线性探测）的索引表按键查找；
+ * 计算hash和比较键时按ASCII字符忽略大小写，查找不会像LinkedCaseInsensitiveMap那样每次生成小写的String，
+ * 也不用保存两份键。保留键原来的大小写；非ASCII字符区分大小写（http header名称只能是ASCII字符）。
+ * <p>
+ * 不支持null键。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ * @param <V> the value type
+ */
+public class CaseInsensitiveHeaderMap<V> extends AbstractMap<String, V> implements Serializable, Cloneable {
+    private static final long serialVersionUID = 2396815423174089025L;
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private transient String[] keys;
+    private transient Object[] values;
+    /** 索引表：存放 数组下标+1，0表示空位，长度为2的幂且至少为容量的2倍 */
+    private transient int[] index;
+    private transient int size;
+    private transient int modCount;
+    private transient EntrySet entrySet;
+
+    public CaseInsensitiveHeaderMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CaseInsensitiveHeaderMap(int initialCapacity) {
+        init(Math.max(initialCapacity, 2));
+    }
+
+    public CaseInsensitiveHeaderMap(Map<String, ? extends V> map) {
+        this(map.size());
+        putAll(map);
+    }
+
+    private void init(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+        index = new int[tableSizeFor(capacity * 2)];
+    }
+
+    private static int tableSizeFor(int n) {
+        int c = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        return c < 0 ? 1 << 30 : c;
+    }
+
+    static int hash(String key) {
+        int h = 0;
+        for (int i = 0, len = key.length(); i < len; i++) {
+            char c = key.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 32;
+            }
+            h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    static boolean equalsIgnoreCase(String a, String b) {
+        if (a == b) {
+            return true;
+        }
+        int len = a.length();
+        if (len != b.length()) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char c1 = a.charAt(i);
+            char c2 = b.charAt(i);
+            if (c1 != c2) {
+                if (c1 >= 'A' && c1 <= 'Z') {
+                    c1 += 32;
+                }
+                if (c2 >= 'A' && c2 <= 'Z') {
+                    c2 += 32;
+                }
+                if (c1 != c2) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 键在数组中的下标，不存在时返回-1
+     */
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        String k = (String) key;
+        int mask = index.length - 1;
+        for (int i = hash(k) & mask;; i = (i + 1) & mask) {
+            int slot = index[i];
+            if (slot == 0) {
+                return -1;
+            }
+            if (equalsIgnoreCase(keys[slot - 1], k)) {
+                return slot - 1;
+            }
+        }
+    }
+
+    private void addIndex(String key, int pos) {
+        int mask = index.length - 1;
+        int i = hash(key) & mask;
+        while (index[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        index[i] = pos + 1;
+    }
+
+    private void rebuildIndex() {
+        Arrays.fill(index, 0);
+        for (int i = 0; i < size; i++) {
+            addIndex(keys[i], i);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < size; i++) {
+            if (value == null ? values[i] == null : value.equals(values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? (V) values[i] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int i = indexOf(key);
+        return i >= 0 ? (V) values[i] : defaultValue;
+    }
+
+    /**
+     * 已有不同大小写的相同键时，替换其值，并以新的键为准，位置不变
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(String key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("null key is not supported");
+        }
+        int i = indexOf(key);
+        if (i >= 0) {
+            V old = (V) values[i];
+            keys[i] = key;
+            values[i] = value;
+            return old;
+        }
+        if (size == keys.length) {
+            grow();
+        }
+        keys[size] = key;
+        values[size] = value;
+        addIndex(key, size);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    private void grow() {
+        int capacity = keys.length << 1;
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        index = new int[tableSizeFor(capacity * 2)];
+        rebuildIndex();
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends V> map) {
+        for (Map.Entry<? extends String, ? extends V> en : map.entrySet()) {
+            put(en.getKey(), en.getValue());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = (V) values[i];
+        removeAt(i);
+        return old;
+    }
+
+    private void removeAt(int i) {
+        int move = size - i - 1;
+        if (move > 0) {
+            System.arraycopy(keys, i + 1, keys, i, move);
+            System.arraycopy(values, i + 1, values, i, move);
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+        // header很少删除，直接重建索引
+        rebuildIndex();
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        Arrays.fill(index, 0);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        EntrySet es = entrySet;
+        if (es == null) {
+            entrySet = es = new EntrySet();
+        }
+        return es;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CaseInsensitiveHeaderMap<V> clone() {
+        try {
+            CaseInsensitiveHeaderMap<V> copy = (CaseInsensitiveHeaderMap<V>) super.clone();
+            copy.keys = keys.clone();
+            copy.values = values.clone();
+            copy.index = index.clone();
+            copy.entrySet = null;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeObject(keys[i]);
+            out.writeObject(values[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int n = in.readInt();
+        if (n < 0) {
+            throw new InvalidObjectException("illegal size: " + n);
+        }
+        init(Math.max(n, 2));
+        for (int i = 0; i < n; i++) {
+            put((String) in.readObject(), (V) in.readObject());
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+        @Override
+        public Iterator<Map.Entry<String, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CaseInsensitiveHeaderMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, V>> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<String, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new EntryView(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class EntryView implements Map.Entry<String, V> {
+        private final int pos;
+
+        EntryView(int pos) {
+            this.pos = pos;
+        }
+
+        @Override
+        public String getKey() {
+            return keys[pos];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[pos];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            V old = (V) values[pos];
+            values[pos] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object v = getValue();
+            return getKey().equals(e.getKey()) && (v == null ? e.getValue() == null : v.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object v = getValue();
+            return getKey().hashCode() ^ (v == null ? 0 : v.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+}
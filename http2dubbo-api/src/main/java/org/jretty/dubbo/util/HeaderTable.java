@@ -0,0 +1,156 @@
+package org.jretty.dubbo.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 请求头的编码表（参考HPACK的静态表）：常见的请求头名称、常见的 名称+值 组合，编码时用序号代替字符串。
+ * <p>
+ * 静态表只能在末尾追加，不能修改已有的序号（否则新旧版本无法互通）。
+ * 另外可以配置一个扩展表（如站点自定义的请求头、cookie名称），由网关和服务端配置为相同的内容，
+ * 以表内容的hash作为id写入数据，服务端的扩展表与之不同时拒绝解码。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+final class HeaderTable {
+
+    static final String[] STATIC_NAMES = {
+        "accept", "accept-charset", "accept-encoding", "accept-language", "authorization",
+        "cache-control", "connection", "content-length", "content-type", "cookie",
+        "host", "if-match", "if-modified-since", "if-none-match", "if-range",
+        "if-unmodified-since", "origin", "pragma", "range", "referer",
+        "user-agent", "via", "x-forwarded-for", "x-forwarded-host", "x-forwarded-port",
+        "x-forwarded-proto", "x-real-ip", "x-requested-with", "x-request-id", "upgrade-insecure-requests",
+        "dnt", "sec-fetch-dest", "sec-fetch-mode", "sec-fetch-site", "sec-fetch-user",
+        "sec-ch-ua", "sec-ch-ua-mobile", "sec-ch-ua-platform", "traceparent", "tracestate",
+        "expect", "forwarded", "te", "token", "x-token" };
+
+    static final String[][] STATIC_PAIRS = {
+        { "accept", "*/*" },
+        { "accept", "application/json" },
+        { "accept", "application/json, text/plain, */*" },
+        { "accept-encoding", "gzip, deflate" },
+        { "accept-encoding", "gzip, deflate, br" },
+        { "accept-language", "zh-CN,zh;q=0.9" },
+        { "accept-language", "zh-CN,zh;q=0.9,en;q=0.8" },
+        { "cache-control", "no-cache" },
+        { "cache-control", "max-age=0" },
+        { "connection", "keep-alive" },
+        { "connection", "close" },
+        { "content-type", "application/json" },
+        { "content-type", "application/json;charset=UTF-8" },
+        { "content-type", "application/x-www-form-urlencoded" },
+        { "content-type", "application/x-www-form-urlencoded; charset=UTF-8" },
+        { "pragma", "no-cache" },
+        { "x-requested-with", "XMLHttpRequest" },
+        { "x-forwarded-proto", "http" },
+        { "x-forwarded-proto", "https" },
+        { "x-forwarded-port", "80" },
+        { "x-forwarded-port", "443" },
+        { "upgrade-insecure-requests", "1" },
+        { "dnt", "1" },
+        { "sec-fetch-dest", "empty" },
+        { "sec-fetch-dest", "document" },
+        { "sec-fetch-mode", "cors" },
+        { "sec-fetch-mode", "navigate" },
+        { "sec-fetch-site", "same-origin" },
+        { "sec-fetch-site", "same-site" },
+        { "sec-fetch-site", "cross-site" },
+        { "sec-fetch-site", "none" },
+        { "sec-fetch-user", "?1" },
+        { "sec-ch-ua-mobile", "?0" },
+        { "sec-ch-ua-platform", "\"Windows\"" },
+        { "sec-ch-ua-platform", "\"macOS\"" } };
+
+    static final HeaderTable STATIC = new HeaderTable(null);
+
+    private static volatile HeaderTable current = STATIC;
+
+    /** 扩展表的id，无扩展表时为0 */
+    final int extensionId;
+    final String[] extensionNames;
+    private final CaseInsensitiveHeaderMap<NameEntry> lookup;
+
+    /** 某个名称在表中的位置，以及以它为名称的 名称+值 组合 */
+    static final class NameEntry {
+        /** 静态表序号，不在静态表中时为-1 */
+        int staticIndex = -1;
+        /** 扩展表序号，不在扩展表中时为-1 */
+        int extensionIndex = -1;
+        int[] pairIndexes = new int[0];
+        String[] pairValues = new String[0];
+
+        int findPair(String value) {
+            for (int i = 0; i < pairValues.length; i++) {
+                if (pairValues[i].equals(value)) {
+                    return pairIndexes[i];
+                }
+            }
+            return -1;
+        }
+    }
+
+    private HeaderTable(String[] extensionNames) {
+        this.extensionNames = extensionNames != null ? extensionNames : new String[0];
+        this.extensionId = extensionNames != null && extensionNames.length > 0
+                ? Arrays.hashCode(extensionNames) | 1 : 0;
+        this.lookup = new CaseInsensitiveHeaderMap<NameEntry>(STATIC_NAMES.length + this.extensionNames.length);
+        for (int i = 0; i < STATIC_NAMES.length; i++) {
+            entry(STATIC_NAMES[i]).staticIndex = i;
+        }
+        for (int i = 0; i < STATIC_PAIRS.length; i++) {
+            NameEntry e = entry(STATIC_PAIRS[i][0]);
+            int n = e.pairValues.length;
+            e.pairValues = Arrays.copyOf(e.pairValues, n + 1);
+            e.pairIndexes = Arrays.copyOf(e.pairIndexes, n + 1);
+            e.pairValues[n] = STATIC_PAIRS[i][1];
+            e.pairIndexes[n] = i;
+        }
+        for (int i = 0; i < this.extensionNames.length; i++) {
+            NameEntry e = entry(this.extensionNames[i]);
+            if (e.staticIndex < 0 && e.extensionIndex < 0) {
+                e.extensionIndex = i;
+            }
+        }
+    }
+
+    private NameEntry entry(String name) {
+        NameEntry e = lookup.get(name);
+        if (e == null) {
+            e = new NameEntry();
+            lookup.put(name, e);
+        }
+        return e;
+    }
+
+    /**
+     * 按名称查找（不区分大小写）
+     */
+    NameEntry find(String name) {
+        return lookup.get(name);
+    }
+
+    static HeaderTable current() {
+        return current;
+    }
+
+    /**
+     * 设置扩展表，网关和服务端必须设置为相同的内容（顺序也要相同）
+     */
+    static void setExtension(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            current = STATIC;
+            return;
+        }
+        List<String> list = new ArrayList<String>(names.size());
+        for (String name : names) {
+            list.add(name.toLowerCase(Locale.ROOT));
+        }
+        current = new HeaderTable(list.toArray(new String[list.size()]));
+    }
+
+}
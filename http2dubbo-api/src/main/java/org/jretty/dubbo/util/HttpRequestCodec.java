@@ -0,0 +1,448 @@
+package org.jretty.dubbo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jretty.dubbo.dto.HttpRequestDto;
+
+/**
+ * HttpRequestDto的紧凑二进制编码，不依赖具体的序列化框架（见{@link org.jretty.dubbo.dto.CompactHttpRequestDto}）。
+ * <p>
+ * 格式（版本2）：
+ * <pre>
+ * version(1字节)
+ * method, requestURI, characterEncoding, contentType, requestedSessionId, bodyString, bodyCharset : str
+ * bodyBytes : bytes
+ * headers    : tableId: varint, n, (header) * n         —— 一个扁平的列表
+ * parameters : n, (name: str, m, (value: str) * m) * n
+ * attributes : n, (name: str, value: tag + 值) * n
+ * 其中 str/bytes = varint(长度+1) + UTF-8字节（长度+1为0表示null），n、m = varint(个数+1)（0表示null）
+ * </pre>
+ * 每个header以varint k开头，低2位为类型、其余为序号（参考HPACK，编码表见{@link HeaderTable}）：
+ * 0 —— 名称和值都是字面量（name: str, value: str）；1 —— 名称+值都在静态表中；
+ * 2 —— 名称在静态表中，值为字面量（value: str）；3 —— 名称在扩展表中，值为字面量（value: str）。
+ * 在表中的名称解码后为小写（header名称不区分大小写）。版本1中header为 (name: str, value: str) * n，仍可以解码。
+ * <p>
+ * attributes的值只支持String、Integer、Long、Boolean（及null），其他类型编码时抛出IllegalArgumentException。
+ * 不使用Java序列化：解码的数据来自调用方，反序列化任意类存在安全风险。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public final class HttpRequestCodec {
+
+    static final int VERSION = 2;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_INT = 2;
+    private static final int TAG_LONG = 3;
+    private static final int TAG_BOOLEAN = 4;
+
+    private static final int HEADER_LITERAL = 0;
+    private static final int HEADER_PAIR = 1;
+    private static final int HEADER_STATIC_NAME = 2;
+    private static final int HEADER_EXTENSION_NAME = 3;
+
+    private static final LongAdder HEADER_RAW_CHARS = new LongAdder();
+    private static final LongAdder HEADER_ENCODED_BYTES = new LongAdder();
+
+    private HttpRequestCodec() {
+    }
+
+    public static byte[] encode(HttpRequestDto dto) {
+        Writer w = new Writer(256);
+        w.writeByte(VERSION);
+        w.writeString(dto.getMethod());
+        w.writeString(dto.getRequestURI());
+        w.writeString(dto.getCharacterEncoding());
+        w.writeString(dto.getContentType());
+        w.writeString(dto.getRequestedSessionId());
+        // 只有bodyBytes时不解码出bodyString
+        w.writeString(dto.getBodyBytes() != null ? null : dto.getBodyString());
+        w.writeString(dto.getBodyCharset());
+        w.writeBytes(dto.getBodyBytes());
+
+        writeHeaders(w, dto.getHeaders());
+        Map<String, String[]> parameters = dto.getParameters();
+        w.writeCount(parameters);
+        if (parameters != null) {
+            for (Map.Entry<String, String[]> en : parameters.entrySet()) {
+                w.writeString(en.getKey());
+                String[] values = en.getValue();
+                w.writeVarint(values == null ? 0 : values.length + 1);
+                if (values != null) {
+                    for (String v : values) {
+                        w.writeString(v);
+                    }
+                }
+            }
+        }
+        Map<String, Object> attributes = dto.getAttributes();
+        w.writeCount(attributes);
+        if (attributes != null) {
+            for (Map.Entry<String, Object> en : attributes.entrySet()) {
+                w.writeString(en.getKey());
+                writeValue(w, en.getValue());
+            }
+        }
+        return w.toByteArray();
+    }
+
+    public static HttpRequestDto decode(byte[] data) {
+        Reader r = new Reader(data);
+        int version = r.readByte();
+        if (version != VERSION && version != 1) {
+            throw new IllegalArgumentException("unsupported HttpRequestDto codec version: " + version);
+        }
+        HttpRequestDto dto = new HttpRequestDto();
+        dto.setMethod(r.readString());
+        dto.setRequestURI(r.readString());
+        dto.setCharacterEncoding(r.readString());
+        dto.setContentType(r.readString());
+        dto.setRequestedSessionId(r.readString());
+        dto.setBodyString(r.readString());
+        dto.setBodyCharset(r.readString());
+        dto.setBodyBytes(r.readBytes());
+
+        dto.setHeaders(version == 1 ? readLiteralHeaders(r) : readHeaders(r));
+        int n = r.readCount();
+        if (n >= 0) {
+            Map<String, String[]> parameters = new LinkedHashMap<String, String[]>(capacity(n));
+            for (int i = 0; i < n; i++) {
+                String name = r.readString();
+                int m = r.readCount();
+                String[] values = null;
+                if (m >= 0) {
+                    values = new String[m];
+                    for (int j = 0; j < m; j++) {
+                        values[j] = r.readString();
+                    }
+                }
+                parameters.put(name, values);
+            }
+            dto.setParameters(parameters);
+        }
+        n = r.readCount();
+        if (n >= 0) {
+            Map<String, Object> attributes = new LinkedHashMap<String, Object>(capacity(n));
+            for (int i = 0; i < n; i++) {
+                attributes.put(r.readString(), readValue(r));
+            }
+            dto.setAttributes(attributes);
+        }
+        return dto;
+    }
+
+    /**
+     * 设置请求头的扩展编码表（如站点自定义的请求头名称），网关和服务端必须设置为相同的内容（顺序也要相同）。
+     * 传null或空集合则只使用静态表。
+     */
+    public static void setExtensionHeaders(Collection<String> names) {
+        HeaderTable.setExtension(names);
+    }
+
+    /**
+     * @return 已编码的请求头的原始大小（名称和值的字符数之和）
+     */
+    public static long getHeaderRawChars() {
+        return HEADER_RAW_CHARS.sum();
+    }
+
+    /**
+     * @return 已编码的请求头编码后的字节数
+     */
+    public static long getHeaderEncodedBytes() {
+        return HEADER_ENCODED_BYTES.sum();
+    }
+
+    /**
+     * @return 请求头的压缩率（编码后字节数 / 原始字符数），尚无数据时返回1
+     */
+    public static double getHeaderCompressionRatio() {
+        long raw = HEADER_RAW_CHARS.sum();
+        return raw == 0 ? 1.0 : (double) HEADER_ENCODED_BYTES.sum() / raw;
+    }
+
+    public static void resetHeaderStats() {
+        HEADER_RAW_CHARS.reset();
+        HEADER_ENCODED_BYTES.reset();
+    }
+
+    private static void writeHeaders(Writer w, Map<String, String> headers) {
+        HeaderTable table = HeaderTable.current();
+        int start = w.size();
+        long raw = 0;
+        w.writeVarint(table.extensionId);
+        w.writeCount(headers);
+        if (headers != null) {
+            for (Map.Entry<String, String> en : headers.entrySet()) {
+                String name = en.getKey();
+                String value = en.getValue();
+                raw += (name != null ? name.length() : 0) + (value != null ? value.length() : 0);
+                HeaderTable.NameEntry e = name != null ? table.find(name) : null;
+                int pair;
+                if (e == null) {
+                    w.writeVarint(HEADER_LITERAL);
+                    w.writeString(name);
+                } else if (value != null && (pair = e.findPair(value)) >= 0) {
+                    w.writeVarint(pair << 2 | HEADER_PAIR);
+                    continue;
+                } else if (e.staticIndex >= 0) {
+                    w.writeVarint(e.staticIndex << 2 | HEADER_STATIC_NAME);
+                } else if (e.extensionIndex >= 0) {
+                    w.writeVarint(e.extensionIndex << 2 | HEADER_EXTENSION_NAME);
+                } else {
+                    w.writeVarint(HEADER_LITERAL);
+                    w.writeString(name);
+                }
+                w.writeString(value);
+            }
+        }
+        HEADER_RAW_CHARS.add(raw);
+        HEADER_ENCODED_BYTES.add(w.size() - start);
+    }
+
+    private static Map<String, String> readHeaders(Reader r) {
+        int tableId = (int) r.readVarlong();
+        HeaderTable table = HeaderTable.current();
+        if (tableId != 0 && tableId != table.extensionId) {
+            throw new IllegalArgumentException("header extension table mismatch, expected id=" + tableId
+                    + ", local id=" + table.extensionId);
+        }
+        int n = r.readCount();
+        if (n < 0) {
+            return null;
+        }
+        Map<String, String> headers = new CaseInsensitiveHeaderMap<String>(n);
+        for (int i = 0; i < n; i++) {
+            int k = r.readVarint();
+            int index = k >>> 2;
+            switch (k & 3) {
+            case HEADER_PAIR:
+                String[] pair = HeaderTable.STATIC_PAIRS[checkIndex(index, HeaderTable.STATIC_PAIRS.length)];
+                headers.put(pair[0], pair[1]);
+                break;
+            case HEADER_STATIC_NAME:
+                headers.put(HeaderTable.STATIC_NAMES[checkIndex(index, HeaderTable.STATIC_NAMES.length)],
+                        r.readString());
+                break;
+            case HEADER_EXTENSION_NAME:
+                headers.put(table.extensionNames[checkIndex(index, table.extensionNames.length)], r.readString());
+                break;
+            default:
+                headers.put(r.readString(), r.readString());
+            }
+        }
+        return headers;
+    }
+
+    private static Map<String, String> readLiteralHeaders(Reader r) {
+        int n = r.readCount();
+        if (n < 0) {
+            return null;
+        }
+        Map<String, String> headers = new CaseInsensitiveHeaderMap<String>(n);
+        for (int i = 0; i < n; i++) {
+            headers.put(r.readString(), r.readString());
+        }
+        return headers;
+    }
+
+    private static int checkIndex(int index, int length) {
+        if (index >= length) {
+            throw new IllegalArgumentException("malformed HttpRequestDto data, header index " + index);
+        }
+        return index;
+    }
+
+    private static int capacity(int n) {
+        return n < 3 ? n + 1 : (int) (n / 0.75f + 1.0f);
+    }
+
+    private static void writeValue(Writer w, Object value) {
+        if (value == null) {
+            w.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            w.writeByte(TAG_STRING);
+            w.writeString((String) value);
+        } else if (value instanceof Integer) {
+            w.writeByte(TAG_INT);
+            w.writeVarlong(zigzag((Integer) value));
+        } else if (value instanceof Long) {
+            w.writeByte(TAG_LONG);
+            w.writeVarlong(zigzag((Long) value));
+        } else if (value instanceof Boolean) {
+            w.writeByte(TAG_BOOLEAN);
+            w.writeByte((Boolean) value ? 1 : 0);
+        } else {
+            throw new IllegalArgumentException("unsupported attribute value type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(Reader r) {
+        int tag = r.readByte();
+        switch (tag) {
+        case TAG_NULL:
+            return null;
+        case TAG_STRING:
+            return r.readString();
+        case TAG_INT:
+            return (int) unzigzag(r.readVarlong());
+        case TAG_LONG:
+            return unzigzag(r.readVarlong());
+        case TAG_BOOLEAN:
+            return r.readByte() != 0;
+        default:
+            throw new IllegalArgumentException("unknown attribute value tag: " + tag);
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int capacity) {
+            this.buf = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeVarint(int v) {
+            writeVarlong(v & 0xFFFFFFFFL);
+        }
+
+        void writeVarlong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void writeCount(Map<?, ?> map) {
+            writeVarint(map == null ? 0 : map.size() + 1);
+        }
+
+        void writeString(String s) {
+            writeBytes(s == null ? null : s.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeBytes(byte[] b) {
+            if (b == null) {
+                writeVarint(0);
+                return;
+            }
+            writeVarint(b.length + 1);
+            ensure(b.length);
+            System.arraycopy(b, 0, buf, pos, b.length);
+            pos += b.length;
+        }
+
+        int size() {
+            return pos;
+        }
+
+        private void ensure(int n) {
+            if (pos + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + n));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int readByte() {
+            if (pos >= buf.length) {
+                throw new IllegalArgumentException("truncated HttpRequestDto data");
+            }
+            return buf[pos++] & 0xFF;
+        }
+
+        int readVarint() {
+            long v = readVarlong();
+            if (v > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("malformed HttpRequestDto data");
+            }
+            return (int) v;
+        }
+
+        long readVarlong() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+            }
+            throw new IllegalArgumentException("malformed HttpRequestDto data");
+        }
+
+        /**
+         * 读取n、m：每个元素至少占1字节，个数超过剩余字节数的数据是非法的，避免按伪造的个数预分配内存
+         */
+        int readCount() {
+            int n = readVarint() - 1;
+            if (n > 0) {
+                checkLength(n);
+            }
+            return n;
+        }
+
+        String readString() {
+            int len = readVarint() - 1;
+            if (len < 0) {
+                return null;
+            }
+            checkLength(len);
+            String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+
+        byte[] readBytes() {
+            int len = readVarint() - 1;
+            if (len < 0) {
+                return null;
+            }
+            checkLength(len);
+            byte[] b = Arrays.copyOfRange(buf, pos, pos + len);
+            pos += len;
+            return b;
+        }
+
+        private void checkLength(int len) {
+            if (len > buf.length - pos) {
+                throw new IllegalArgumentException("truncated HttpRequestDto data");
+            }
+        }
+    }
+
+}
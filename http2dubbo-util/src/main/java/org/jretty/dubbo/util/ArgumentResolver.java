@@ -0,0 +1,256 @@
+package org.jretty.dubbo.util;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ValueConstants;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Controller方法单个参数的取值计划，在解析Controller时为每个方法预先生成（见{@link #compile}），
+ * 已确定参数的取值来源、key、默认值和类型转换器，请求时不再读取注解、不再解析参数名。
+ * <p>
+ * 标准HTTP数据：
+ * 1、UrlParams（Queries）： map[string]string / map[string][]string
+ * 2、Body:
+ *  FormData（同Queries）: （application/x-www-form-urlencoded）
+ *  String: （application/json， application/xml）
+ *  file/mix （multipart/form-data）
+ *
+ *  暂不支持数组值，只支持map[string]string
+ *  不支持file/mix
+ *  @RequestBody参数支持泛型，例如：@RequestBody Request<CouponOpenQueryFrom> request
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+class ArgumentResolver {
+
+    /**
+     * 5种值类型(type)：
+     * PARAM： RequestParam 或 省略
+     * HEADER： 从header中拿
+     * ATTRIBUTE：（附加信息）从服务器端拿
+     * PATH: 从url中拿
+     * BODY：从body中拿
+     */
+    enum Source {
+        PARAM, HEADER, ATTRIBUTE, PATH, BODY
+    }
+
+    final Source source;
+    final String key;
+    final String defaultVal;
+    final Class<?> paraType;
+    /** 主要类型（int、Long等）的转换器，复合类型为null */
+    final MvcConvertUtils.ParseValue converter;
+    /** 复合类型（JavaBean）的绑定器，只对PARAM有效 */
+    final BeanParamMeta beanMeta;
+    /** 第几个路径变量，只对PATH有效 */
+    final int pathIndex;
+    /** 按参数的泛型类型预先创建的JSON解析器，只对BODY有效 */
+    final ObjectReader bodyReader;
+
+    ArgumentResolver(Source source, String key, String defaultVal, Class<?> paraType, int pathIndex) {
+        this(source, key, defaultVal, paraType, paraType, pathIndex);
+    }
+
+    ArgumentResolver(Source source, String key, String defaultVal, Class<?> paraType, Type genericType,
+            int pathIndex) {
+        this.source = source;
+        this.key = key;
+        this.defaultVal = defaultVal;
+        this.paraType = paraType;
+        this.converter = MvcConvertUtils.canConvert(paraType);
+        this.beanMeta = source == Source.PARAM && converter == null ? BeanParamMeta.forClass(paraType) : null;
+        this.pathIndex = pathIndex;
+        this.bodyReader = source == Source.BODY ? PrivateJson.readerFor(genericType) : null;
+    }
+
+    /**
+     * 为方法的每个参数生成取值计划
+     */
+    static ArgumentResolver[] compile(Method method, ParameterNameDiscoverer discoverer) {
+        Class<?>[] paraTypes = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        Annotation[][] annotations = method.getParameterAnnotations();
+        String[] names = null;
+        boolean namesResolved = false;
+        ArgumentResolver[] resolvers = new ArgumentResolver[paraTypes.length];
+        for (int i = 0, j = 0; i < paraTypes.length; i++) {
+            Annotation anno = getMethodParamAnnotation(annotations[i]);
+            Class<?> paraType = paraTypes[i];
+            String key = null;
+            String defaultVal = null;
+            Source source;
+            if (anno == null || anno.annotationType().equals(RequestParam.class)) {
+                source = Source.PARAM;
+                if (anno != null) {
+                    RequestParam hparam = (RequestParam) anno;
+                    key = hparam.value();
+                    if (key.length() == 0) {
+                        key = hparam.name();
+                    }
+                    if (!hparam.defaultValue().equals(ValueConstants.DEFAULT_NONE)) {
+                        defaultVal = hparam.defaultValue();
+                    }
+                }
+            } else if (anno.annotationType().equals(RequestBody.class)) {
+                source = Source.BODY;
+            } else if (anno.annotationType().equals(PathVariable.class)) {
+                resolvers[i] = new ArgumentResolver(Source.PATH, null, null, paraType, j++);
+                continue;
+            } else if (anno.annotationType().equals(RequestHeader.class)) {
+                source = Source.HEADER;
+                RequestHeader hparam = (RequestHeader) anno;
+                key = hparam.value();
+                if (key.length() == 0) {
+                    key = hparam.name();
+                }
+                if (!hparam.defaultValue().equals(ValueConstants.DEFAULT_NONE)) {
+                    defaultVal = hparam.defaultValue();
+                }
+            } else {
+                source = Source.ATTRIBUTE;
+                RequestAttribute hparam = (RequestAttribute) anno;
+                key = hparam.value();
+                if (key.length() == 0) {
+                    key = hparam.name();
+                }
+            }
+            if (source != Source.BODY && (key == null || key.length() == 0)) {
+                if (!namesResolved) {
+                    names = discoverer.getParameterNames(method);
+                    namesResolved = true;
+                }
+                key = names != null ? names[i] : null;
+            }
+            resolvers[i] = new ArgumentResolver(source, key, defaultVal, paraType,
+                    genericTypes.length == paraTypes.length ? genericTypes[i] : paraType, -1);
+        }
+        return resolvers;
+    }
+
+    /**
+     * 按计划从请求中取出参数值
+     */
+    Object resolve(HttpRequest request, List<String> pathVals) {
+        switch (source) {
+        case PARAM:
+            return getParamValue(request);
+        case BODY:
+            return getBodyValue(request);
+        case PATH:
+            return getPathValue(pathVals);
+        case HEADER:
+            return getHeaderValue(request);
+        default:
+            return getAttributeValue(request);
+        }
+    }
+
+    private Object getParamValue(HttpRequest request) {
+        if (converter != null) {
+            // 数据类型为主要类型，可以直接转换，比如int、Long等
+            String sval = request.getParameter(key);
+            if (sval != null) {
+                return converter.parse(sval);
+            } else if (defaultVal != null) {
+                return converter.parse(defaultVal);
+            }
+            return null;
+        } else {
+            // 数据类型为复合类型，需要调用标准setter赋值
+
+            // 请求参数封装到javabean
+            Enumeration<String> enumeration = request.getParameterNames();
+
+            BeanParamMeta paramMetaInfo = beanMeta;
+            Object p = paramMetaInfo.newParamInstance();
+            // 把http参数赋值给参数对象
+            while (enumeration.hasMoreElements()) {
+                String httpParamName = enumeration.nextElement();
+                String[] paramValue = request.getParameterValues(httpParamName);
+                if (paramValue.length == 1 && paramValue[0].length() < 1) {
+                    // 前端的空值("")和null值，传到后端都是""，且无法区分，没有意义，因此直接丢弃掉
+                    continue;
+                }
+                if (!httpParamName.endsWith("[]")) {
+                    paramMetaInfo.setParam(p, httpParamName, paramValue[0]);
+                } else {
+                    paramMetaInfo.setParam(p, httpParamName.substring(0, httpParamName.length() - 2),
+                            paramValue);
+                }
+            }
+
+            return p;
+        }
+    }
+
+    private Object getHeaderValue(HttpRequest request) {
+        if (converter != null) {
+            // 数据类型为主要类型，可以直接转换，比如int、Long等
+            String sval = request.getHeader(key);
+            if (sval != null) {
+                return converter.parse(sval);
+            } else if (defaultVal != null) {
+                return converter.parse(defaultVal);
+            }
+            return null;
+        }
+        return null;
+    }
+
+    private Object getAttributeValue(HttpRequest request) {
+        Object obj = request.getAttribute(key);
+        if (obj == null) {
+            return null;
+        }
+        if (paraType.isAssignableFrom(obj.getClass())) {
+            return obj;
+        }
+        throw new IllegalArgumentException("can'not get the param '" + key + "' of type=" + paraType.getName());
+    }
+
+    private Object getPathValue(List<String> pathVals) {
+        if (converter != null) {
+            // 数据类型为主要类型，可以直接转换，比如int、Long等
+            String sval = pathVals.get(pathIndex);
+            return converter.parse(sval);
+        }
+        return null;
+    }
+
+    // 默认为json类型
+    private Object getBodyValue(HttpRequest request) {
+            // 数据类型为复合类型，需要调用标准setter赋值
+        byte[] bytes = request.getBodyBytes();
+        if (bytes != null) {
+            return PrivateJson.parseObject(bodyReader, bytes, request.getBodyCharset());
+        }
+        return PrivateJson.parseObject(bodyReader, request.getBodyString());
+    }
+
+    private static Annotation getMethodParamAnnotation(Annotation[] annotations) {
+        for (Annotation a : annotations) {
+            if (a.annotationType().equals(RequestParam.class)
+                    || a.annotationType().equals(RequestBody.class)
+                    || a.annotationType().equals(PathVariable.class)
+                    || a.annotationType().equals(RequestHeader.class)
+                    || a.annotationType().equals(RequestAttribute.class))
+                return a;
+        }
+        return null;
+    }
+
+}
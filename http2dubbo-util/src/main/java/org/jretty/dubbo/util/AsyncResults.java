@@ -0,0 +1,132 @@
+package org.jretty.dubbo.util;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Controller异步返回值（CompletionStage/CompletableFuture、DeferredResult、Callable）的适配，
+ * 统一转换成CompletableFuture，结果就绪时再完成dubbo响应，不占用dubbo服务线程。
+ * <p>
+ * 注意：DeferredResult的超时由servlet容器驱动，这里没有容器，超时回调不会触发。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+class AsyncResults {
+
+    private AsyncResults() {
+    }
+
+    /**
+     * 是否为支持的异步返回类型
+     */
+    static boolean isAsyncType(Class<?> type) {
+        return CompletionStage.class.isAssignableFrom(type) || DeferredResult.class.isAssignableFrom(type)
+                || Callable.class.isAssignableFrom(type);
+    }
+
+    /**
+     * 方法返回值的实际结果类型：异步类型取泛型参数（如 CompletableFuture&lt;Order&gt; 取 Order），否则为返回值类型
+     */
+    static Type resultType(Method method) {
+        Type type = method.getGenericReturnType();
+        if (isAsyncType(method.getReturnType())) {
+            if (type instanceof ParameterizedType) {
+                Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+                if (args.length == 1) {
+                    return args[0];
+                }
+            }
+            return Object.class;
+        }
+        return type;
+    }
+
+    /**
+     * 将方法返回值转换成CompletableFuture，非异步类型直接返回已完成的future。
+     * 返回值为异常对象（Controller抛出的异常）时，future以该异常异常完成。
+     *
+     * @param executor 执行Callable的线程池
+     */
+    @SuppressWarnings("unchecked")
+    static CompletableFuture<Object> toFuture(Object result, Executor executor) {
+        if (result instanceof Throwable) {
+            return failed((Throwable) result);
+        }
+        if (result instanceof CompletionStage) {
+            return ((CompletionStage<Object>) result).toCompletableFuture();
+        }
+        if (result instanceof DeferredResult) {
+            final CompletableFuture<Object> future = new CompletableFuture<Object>();
+            ((DeferredResult<?>) result).setResultHandler(new DeferredResult.DeferredResultHandler() {
+                @Override
+                public void handleResult(Object r) {
+                    if (r instanceof Throwable) {
+                        future.completeExceptionally((Throwable) r);
+                    } else {
+                        future.complete(r);
+                    }
+                }
+            });
+            return future;
+        }
+        if (result instanceof Callable) {
+            final Callable<?> callable = (Callable<?>) result;
+            final CompletableFuture<Object> future = new CompletableFuture<Object>();
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            future.complete(callable.call());
+                        } catch (Throwable e) {
+                            future.completeExceptionally(e);
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                // 线程池拒绝
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * 同步等待异步结果
+     */
+    static Object await(Object result, Executor executor) throws Throwable {
+        try {
+            return toFuture(result, executor).get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * 取出CompletionException、ExecutionException包装的原始异常
+     */
+    static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+}
@@ -0,0 +1,141 @@
+package org.jretty.dubbo.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 批量调用：一次dubbo调用携带多个请求，在有界线程池上并发执行，按请求顺序返回结果。
+ * <p>
+ * 每个请求的结果互不影响：成功为结果对象，失败为异常对象（与doInvoke的约定一致），
+ * 超过整批的超时时间（从提交第一个请求时开始计算）仍未完成的请求，结果为TimeoutException（尚未开始执行的请求不再执行）。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+class BatchInvoker {
+
+    static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private volatile long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    private volatile Executor executor;
+
+    void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param call 单个请求的调用，失败时返回异常对象
+     * @return 按请求顺序排列的结果
+     */
+    <T> List<Object> invokeAll(List<T> requests, final Function<T, Object> call) {
+        int size = requests.size();
+        if (size > maxBatchSize) {
+            throw new IllegalArgumentException("batch size " + size + " exceeds the max batch size " + maxBatchSize);
+        }
+        List<Object> results = new ArrayList<Object>(size);
+        if (size == 0) {
+            return results;
+        }
+        if (size == 1) {
+            // 只有一个请求，直接在当前线程执行
+            results.add(call.apply(requests.get(0)));
+            return results;
+        }
+        Executor exec = getExecutor();
+        // 在提交之前计算：线程池在调用线程上执行的请求（如CallerRunsPolicy）同样计入超时时间
+        final long timeout = timeoutMillis;
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        List<CompletableFuture<Object>> futures = new ArrayList<CompletableFuture<Object>>(size);
+        for (final T request : requests) {
+            final CompletableFuture<Object> future = new CompletableFuture<Object>();
+            futures.add(future);
+            try {
+                exec.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (future.isDone()) { // 已超时的不再执行
+                            return;
+                        }
+                        if (deadline - System.nanoTime() <= 0) {
+                            future.complete(new TimeoutException("batch timeout after " + timeout + " ms"));
+                        } else {
+                            future.complete(call.apply(request));
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                // 线程池拒绝
+                future.complete(e);
+            }
+        }
+        for (CompletableFuture<Object> future : futures) {
+            Object result;
+            try {
+                result = future.get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                TimeoutException te = new TimeoutException("batch timeout after " + timeout + " ms");
+                result = future.complete(te) ? te : future.getNow(te);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result = future.complete(e) ? e : future.getNow(e);
+            } catch (Exception e) {
+                // 不会发生：future只以正常方式完成
+                result = e;
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private Executor getExecutor() {
+        Executor exec = executor;
+        if (exec == null) {
+            synchronized (this) {
+                if ((exec = executor) == null) {
+                    executor = exec = newDefaultExecutor();
+                }
+            }
+        }
+        return exec;
+    }
+
+    /**
+     * 默认线程池：线程数为CPU核数的2倍，有界队列，队列满时拒绝（该请求的结果为RejectedExecutionException），
+     * 不在调用线程上执行，以免调用线程执行期间整批超时
+     */
+    private static Executor newDefaultExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        final AtomicInteger seq = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(1024), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "http2dubbo-batch-" + seq.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                }, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+}
@@ -12,64 +12,86 @@
  */
 package org.jretty.dubbo.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.jretty.util.NestedRuntimeException;
 import org.jretty.util.ReflectionUtils;
 
 /**
+ * 请求参数到JavaBean的绑定器。每个类只生成一次（按类缓存，见{@link #forClass}），
+ * 每个属性的setter已预先转换为MethodHandle，类型转换器也已预先确定，
+ * 绑定时只需做类型转换和setter调用。
+ *
  * @author zollty
  * @since 2013-9-21
  */
 class BeanParamMeta {
+
+    private static final ClassValue<BeanParamMeta> CACHE = new ClassValue<BeanParamMeta>() {
+        @Override
+        protected BeanParamMeta computeValue(Class<?> type) {
+            return new BeanParamMeta(type, MvcConvertUtils.Ref.getSetterMethods(type));
+        }
+    };
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
     private final Class<?> paramClass; // 要注入的类型
-    private final Map<String, Method> beanSetMethod; // 要注入的bean的set方法
-    private final String attribute; // 要setAttribute的属性
+    private final Map<String, PropertyBinder> binders; // 要注入的bean的属性
 
-    public BeanParamMeta(Class<?> paramClass, Map<String, Method> beanSetMethod, String attribute) {
+    BeanParamMeta(Class<?> paramClass, Map<String, Method> beanSetMethod) {
         this.paramClass = paramClass;
-        this.beanSetMethod = beanSetMethod;
-        this.attribute = attribute;
+        this.binders = new HashMap<String, PropertyBinder>(beanSetMethod.size() * 2);
+        for (Map.Entry<String, Method> en : beanSetMethod.entrySet()) {
+            binders.put(en.getKey(), new PropertyBinder(en.getValue()));
+        }
     }
 
-    public String getAttribute() {
-        return attribute;
+    /**
+     * 获取类的绑定器（已缓存）
+     */
+    public static BeanParamMeta forClass(Class<?> paramClass) {
+        return CACHE.get(paramClass);
     }
 
     /**
      * 给参数对象的实例赋值
-     * 
+     *
      * @param o 要赋值的对象
      * @param key 要赋值的属性
      * @param value 要赋的值
      */
     public void setParam(Object o, String key, String value) {
-        Method m = beanSetMethod.get(key);
-        if (m != null) {
-            Class<?> p = m.getParameterTypes()[0];
+        PropertyBinder b = binders.get(key);
+        if (b != null) {
             try {
-                ReflectionUtils.invokeMethod(m, o, MvcConvertUtils.convert(value, p));
+                b.set(o, b.converter.parse(value));
             } catch (Exception e) {
                 throw new NestedRuntimeException(e, "set param value error.");
             }
         }
     }
-    
+
     public void setParam(Object o, String key, String[] value) {
-        Method m = beanSetMethod.get(key);
-        if (m != null) {
-            Class<?> p = m.getParameterTypes()[0];
-            if (p.isArray()) {
+        PropertyBinder b = binders.get(key);
+        if (b != null) {
+            if (b.type.isArray()) {
                 try {
-                    ReflectionUtils.invokeMethod(m, o, MvcConvertUtils.toArrayValue(value, p));
+                    b.set(o, MvcConvertUtils.toArrayValue(value, b.type));
                 } catch (Exception e) {
                     throw new NestedRuntimeException(e, "set param value error.");
                 }
-            } else if (Collection.class.isAssignableFrom(p)) {
+            } else if (b.collection) {
                 try {
-                    ReflectionUtils.invokeMethod(m, o, MvcConvertUtils.toListValue(value, m, 0));
+                    b.set(o, MvcConvertUtils.toListValue(value, b.type, b.elementType));
                 } catch (Exception e) {
                     throw new NestedRuntimeException(e, "set param value error.");
                 }
@@ -77,6 +99,13 @@ class BeanParamMeta {
         }
     }
 
+    /**
+     * 可以绑定的属性名称
+     */
+    public Set<String> propertyNames() {
+        return binders.keySet();
+    }
+
     /**
      * 新建一个参数对象实例
      */
@@ -84,4 +113,59 @@ class BeanParamMeta {
         return ReflectionUtils.newInstance(paramClass);
     }
 
-}
\ No newline at end of file
+    private static class PropertyBinder {
+        final Class<?> type;
+        final MvcConvertUtils.ParseValue converter;
+        final boolean collection;
+        /** 集合类型属性的元素类型，无法确定时为null */
+        final Class<?> elementType;
+        final Method method;
+        final MethodHandle setter;
+
+        PropertyBinder(Method method) {
+            this.method = method;
+            this.type = method.getParameterTypes()[0];
+            MvcConvertUtils.ParseValue p = MvcConvertUtils.canConvert(type);
+            this.converter = p != null ? p : MvcConvertUtils.UNTYPED;
+            this.collection = Collection.class.isAssignableFrom(type);
+            this.elementType = collection ? getElementType(method) : null;
+            MethodHandle mh;
+            try {
+                // getSetterMethods已经makeAccessible
+                mh = MethodHandles.lookup().unreflect(method).asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                mh = null;
+            }
+            this.setter = mh;
+        }
+
+        private static Class<?> getElementType(Method method) {
+            try {
+                return ReflectionUtils.getMethodParamGenericActualType(method, 0)[0];
+            } catch (RuntimeException e) {
+                // 未声明泛型等情况，元素按字符串内容推断类型
+                return null;
+            }
+        }
+
+        /**
+         * setter抛出的Error原样抛出，不包装
+         */
+        void set(Object o, Object value) throws Exception {
+            if (setter != null) {
+                try {
+                    setter.invokeExact(o, value);
+                } catch (Exception e) {
+                    throw e;
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            } else {
+                ReflectionUtils.invokeMethod(method, o, value);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.jretty.dubbo.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路由（或Controller类）的并发数限制：同时执行的调用数达到上限时立即拒绝，不排队，
+ * 避免一个慢Controller占满dubbo的全部服务线程。
+ * <p>
+ * 许可数为一个AtomicInteger，获取、释放都是无锁的CAS操作。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param name 名称：路由标识（如 "GET /report/export"）或Controller类名
+     * @param maxConcurrent 最大并发数
+     */
+    public Bulkhead(String name, int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * 获取一个许可，成功后必须调用{@link #release()}
+     * 
+     * @return 是否成功，已达到上限时返回false并计入拒绝数
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int n = inUse.get();
+            if (n >= maxConcurrent) {
+                rejected.increment();
+                return false;
+            }
+            if (inUse.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inUse.decrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * @return 正在执行的调用数
+     */
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    /**
+     * @return 因达到上限而拒绝的调用数
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+}
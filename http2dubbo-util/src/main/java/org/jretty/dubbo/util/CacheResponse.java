@@ -0,0 +1,39 @@
+package org.jretty.dubbo.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 在服务端缓存Controller方法已编码的响应（见{@link ResponseCache}），只对GET、HEAD请求生效，
+ * 只用于doInvokeToJson、doInvokeToBytes等直接返回编码结果的调用方式。Controller抛出异常时不缓存。
+ * <p>
+ * 缓存的键默认由方法实际读取的参数、header、attribute计算，也可以通过params、headers指定。
+ * 方法读取的attribute只能是String、基本类型及其包装类，否则扫描Controller时抛出IllegalArgumentException。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheResponse {
+
+    /**
+     * 缓存时间（毫秒）
+     */
+    long ttl() default 60000;
+
+    /**
+     * 参与计算缓存键的参数名称，默认为方法实际读取的参数（方法读取全部参数时为请求中的全部参数）
+     */
+    String[] params() default {};
+
+    /**
+     * 参与计算缓存键的header名称，默认为方法实际读取的header
+     */
+    String[] headers() default {};
+
+}
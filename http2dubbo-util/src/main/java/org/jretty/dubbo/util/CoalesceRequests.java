@@ -0,0 +1,34 @@
+package org.jretty.dubbo.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 合并Controller方法相同的并发请求（见{@link RequestCoalescer}），只对GET、HEAD请求生效，
+ * 只用于doInvokeToJson、doInvokeToBytes等直接返回编码结果的调用方式。
+ * <p>
+ * 请求是否相同默认由方法实际读取的参数、header、attribute判断，也可以通过params、headers指定。
+ * 方法读取的attribute只能是String、基本类型及其包装类，否则扫描Controller时抛出IllegalArgumentException。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CoalesceRequests {
+
+    /**
+     * 用于判断请求是否相同的参数名称，默认为方法实际读取的参数（方法读取全部参数时为请求中的全部参数）
+     */
+    String[] params() default {};
+
+    /**
+     * 用于判断请求是否相同的header名称，默认为方法实际读取的header
+     */
+    String[] headers() default {};
+
+}
@@ -0,0 +1,31 @@
+package org.jretty.dubbo.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 限制Controller方法的并发数（见{@link Bulkhead}），达到上限时立即以 "503 route busy" 拒绝。
+ * <p>
+ * 标注在方法上时每个方法单独计数；标注在Controller类上时，该类的方法（未单独标注的）共享一个上限。
+ * 命中响应缓存的请求不占用许可。
+ * <p>
+ * 返回CompletionStage、DeferredResult、Callable的异步方法：doInvokeAsync、doInvokeToJsonAsync在结果完成时才释放许可，
+ * doInvokeToJson等同步等待结果的调用方式在等待期间同样占用许可；doInvoke直接返回异步对象，只计入Controller方法本身的执行。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConcurrencyLimit {
+
+    /**
+     * 最大并发数
+     */
+    int value();
+
+}
@@ -4,7 +4,7 @@ import java.lang.reflect.Method;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.jretty.util.match.ZolltyPathMatcher;
+import org.jretty.dubbo.dto.RouteSpec;
 
 /**
  * 
@@ -23,7 +23,26 @@ public class ControllerMatchMeta {
         Method method;
         String methodUrl;
         String methodType;
-        ZolltyPathMatcher mather;
+        MethodInvoker invoker;
+        ArgumentResolver[] resolvers;
+        /** 参数全部为基本类型或String时的专用调用器，否则为null */
+        PrimitiveInvoker primitiveInvoker;
+        /** 返回值是否为异步类型（CompletionStage、DeferredResult、Callable） */
+        boolean async;
+        /** 按返回值类型（异步类型取其结果类型）预先创建的JSON序列化器，返回值为void、Object时为null */
+        PrivateJson.TypedWriter resultWriter;
+        /** 路由描述（实际读取的请求数据），用于发布路由清单 */
+        RouteSpec spec;
+        /** 路由标识：请求方法 + 空格 + 方法的url，如 GET /dict/{type} */
+        String route;
+        /** 响应缓存配置，未开启缓存时为null；可在运行时由setResponseCacheRoutes修改 */
+        volatile ResponseCache.Policy cachePolicy;
+        /** 合并相同并发请求时用于判断请求是否相同，未开启时为null；可在运行时由setCoalescedRoutes修改 */
+        volatile RequestKey coalesceKey;
+        /** Controller实现了ResourceVersionProvider时为该Controller，否则为null */
+        ResourceVersionProvider versionProvider;
+        /** 并发数限制（可能由同一Controller类的方法共享），未限制时为null；可在运行时由setBulkheadLimits修改 */
+        volatile Bulkhead bulkhead;
     }
     
 }
@@ -0,0 +1,152 @@
+package org.jretty.dubbo.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 响应的ETag：已编码响应字节的64位hash（xxHash64），或者由Controller提供的资源版本计算（见{@link ResourceVersionProvider}）。
+ * <p>
+ * xxHash64每次处理8字节，比MD5等摘要算法快一个数量级以上，只用于判断内容是否变化，不用于安全用途。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+final class ETags {
+
+    static final String IF_NONE_MATCH = "If-None-Match";
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ETags() {
+    }
+
+    /**
+     * @return 响应字节的ETag，如 "1d9b53256eaaf681"（含双引号）
+     */
+    static String of(byte[] body) {
+        return quote('\0', xxHash64(body, 0, body.length));
+    }
+
+    /**
+     * @return 资源版本的ETag，以v开头，与按响应字节计算的不会相同
+     */
+    static String ofVersion(Object version) {
+        byte[] b = String.valueOf(version).getBytes(StandardCharsets.UTF_8);
+        return quote('v', xxHash64(b, 0, b.length));
+    }
+
+    /**
+     * If-None-Match是否与etag匹配：支持多个值（逗号分隔）、弱校验（W/前缀）和*
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        int len = ifNoneMatch.length();
+        int start = 0;
+        while (start < len) {
+            int end = ifNoneMatch.indexOf(',', start);
+            if (end < 0) {
+                end = len;
+            }
+            String tag = ifNoneMatch.substring(start, end).trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String quote(char prefix, long hash) {
+        char[] buf = new char[prefix != '\0' ? 19 : 18];
+        int i = 0;
+        buf[i++] = '"';
+        if (prefix != '\0') {
+            buf[i++] = prefix;
+        }
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            buf[i++] = HEX[(int) (hash >>> shift) & 0xf];
+        }
+        buf[i] = '"';
+        return new String(buf);
+    }
+
+    static long xxHash64(byte[] b, int off, int len) {
+        final int end = off + len;
+        long h;
+        if (len >= 32) {
+            long v1 = P1 + P2;
+            long v2 = P2;
+            long v3 = 0;
+            long v4 = -P1;
+            final int limit = end - 32;
+            do {
+                v1 = round(v1, getLong(b, off));
+                v2 = round(v2, getLong(b, off + 8));
+                v3 = round(v3, getLong(b, off + 16));
+                v4 = round(v4, getLong(b, off + 24));
+                off += 32;
+            } while (off <= limit);
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = merge(h, v1);
+            h = merge(h, v2);
+            h = merge(h, v3);
+            h = merge(h, v4);
+        } else {
+            h = P5;
+        }
+        h += len;
+        while (off + 8 <= end) {
+            h ^= round(0, getLong(b, off));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+            off += 8;
+        }
+        if (off + 4 <= end) {
+            h ^= (getInt(b, off) & 0xFFFFFFFFL) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            off += 4;
+        }
+        while (off < end) {
+            h ^= (b[off] & 0xFF) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+            off++;
+        }
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long merge(long acc, long val) {
+        acc ^= round(0, val);
+        return acc * P1 + P4;
+    }
+
+    private static long getLong(byte[] b, int i) {
+        return (b[i] & 0xFFL) | (b[i + 1] & 0xFFL) << 8 | (b[i + 2] & 0xFFL) << 16 | (b[i + 3] & 0xFFL) << 24
+                | (b[i + 4] & 0xFFL) << 32 | (b[i + 5] & 0xFFL) << 40 | (b[i + 6] & 0xFFL) << 48
+                | (b[i + 7] & 0xFFL) << 56;
+    }
+
+    private static int getInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+    }
+
+}
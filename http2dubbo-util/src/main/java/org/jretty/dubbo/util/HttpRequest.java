@@ -242,4 +242,19 @@ public interface HttpRequest {
      */
     public String getBodyString();
     
+    /**
+     * get raw http body bytes, the charset is {@link #getBodyCharset()}
+     * @return http body bytes, or <code>null</code> if the body was only kept as a string
+     */
+    public default byte[] getBodyBytes() {
+        return null;
+    }
+    
+    /**
+     * @return the charset of {@link #getBodyBytes()}, <code>null</code> means UTF-8
+     */
+    public default String getBodyCharset() {
+        return null;
+    }
+    
 }
@@ -0,0 +1,135 @@
+package org.jretty.dubbo.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * 将Controller返回的Iterator、Stream、Iterable逐个元素编码为一个JSON数组，按块输出。
+ * <p>
+ * 每次调用{@link #next()}只编码够一块（约chunkSize字节）的元素，由调用方拉取驱动，
+ * 数据不会整体物化为一个大字符串；所有块按顺序拼接即为完整的JSON数组。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+class JsonChunkStream implements Closeable {
+
+    private final Iterator<?> iterator;
+    /** 数据源（如Stream），结束或关闭时一并关闭，可以为null */
+    private final AutoCloseable resource;
+    private final int chunkSize;
+    private final ByteArrayOutputStream buffer;
+    private final JsonGenerator generator;
+    private int seq;
+    private boolean finished;
+    /** 未输出完就被关闭（空闲超时或网关提前结束） */
+    private boolean closed;
+
+    JsonChunkStream(Iterator<?> iterator, AutoCloseable resource, int chunkSize) throws IOException {
+        this.iterator = iterator;
+        this.resource = resource;
+        this.chunkSize = chunkSize;
+        this.buffer = new ByteArrayOutputStream(chunkSize + 1024);
+        this.generator = PrivateJson.createGenerator(buffer);
+        generator.writeStartArray();
+    }
+
+    /**
+     * 是否可以按块输出
+     */
+    static boolean isStreamable(Object result) {
+        return result instanceof Iterator || result instanceof Stream || result instanceof Iterable;
+    }
+
+    static JsonChunkStream of(Object result, int chunkSize) throws IOException {
+        if (result instanceof Stream) {
+            Stream<?> stream = (Stream<?>) result;
+            return new JsonChunkStream(stream.iterator(), stream, chunkSize);
+        }
+        if (result instanceof Iterable) {
+            return new JsonChunkStream(((Iterable<?>) result).iterator(), null, chunkSize);
+        }
+        return new JsonChunkStream((Iterator<?>) result, result instanceof AutoCloseable ? (AutoCloseable) result : null,
+                chunkSize);
+    }
+
+    /**
+     * 编码下一块
+     *
+     * @return 本块数据，最后一块之后再调用返回空数组
+     */
+    synchronized byte[] next() throws IOException {
+        if (finished) {
+            return new byte[0];
+        }
+        try {
+            while (buffer.size() + generator.getOutputBuffered() < chunkSize && iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+            }
+            if (!iterator.hasNext()) {
+                generator.writeEndArray();
+                finish();
+            } else {
+                generator.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        seq++;
+        byte[] data = buffer.toByteArray();
+        buffer.reset();
+        return data;
+    }
+
+    /**
+     * @return 已输出的块数
+     */
+    synchronized int getSeq() {
+        return seq;
+    }
+
+    synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return 是否未输出完就被关闭（之后next只返回空数组，不能当作正常结束）
+     */
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!finished) {
+            closed = true;
+            try {
+                finish();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private void finish() throws IOException {
+        finished = true;
+        try {
+            generator.close();
+        } finally {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+}
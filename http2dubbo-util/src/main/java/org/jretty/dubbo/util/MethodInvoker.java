@@ -0,0 +1,120 @@
+package org.jretty.dubbo.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.jretty.util.ReflectionUtils;
+
+/**
+ * Controller方法调用器，在解析Controller时为每个方法预先生成，替代每次请求的Method.invoke。
+ * <p>
+ * 优先使用MethodHandle（已绑定Controller实例、展开参数数组），不可用时退回反射调用。
+ * 异常语义与Method.invoke保持一致：目标方法抛出的异常包装为InvocationTargetException，
+ * 参数类型或个数不匹配则抛出IllegalArgumentException。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+abstract class MethodInvoker {
+
+    private static final MethodHandle WRAP_TARGET_EXCEPTION;
+    static {
+        try {
+            WRAP_TARGET_EXCEPTION = MethodHandles.lookup().findStatic(MethodInvoker.class, "wrapTargetException",
+                    MethodType.methodType(Object.class, Throwable.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    protected final Method method;
+
+    MethodInvoker(Method method) {
+        this.method = method;
+    }
+
+    /**
+     * 调用目标方法
+     *
+     * @param args 方法参数
+     * @return 方法返回值，void方法返回null
+     */
+    abstract Object invoke(Object[] args) throws Exception;
+
+    public static MethodInvoker create(Method method, Object target) {
+        try {
+            return new HandleInvoker(method, target);
+        } catch (IllegalAccessException e) {
+            return new ReflectInvoker(method, target);
+        } catch (RuntimeException e) {
+            return new ReflectInvoker(method, target);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static Object wrapTargetException(Throwable t) throws InvocationTargetException {
+        throw new InvocationTargetException(t);
+    }
+
+    static class HandleInvoker extends MethodInvoker {
+        private final MethodHandle handle;
+
+        HandleInvoker(Method method, Object target) throws IllegalAccessException {
+            super(method);
+            if (!Modifier.isPublic(method.getModifiers())
+                    || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                ReflectionUtils.makeAccessible(method);
+            }
+            MethodHandle mh = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                mh = mh.bindTo(target);
+            }
+            // 目标方法抛出的异常包装为InvocationTargetException，与参数转换的异常区分开
+            MethodHandle handler = WRAP_TARGET_EXCEPTION.asType(
+                    MethodType.methodType(mh.type().returnType(), Throwable.class));
+            handler = MethodHandles.dropArguments(handler, 1, mh.type().parameterList());
+            mh = MethodHandles.catchException(mh, Throwable.class, handler);
+            this.handle = mh.asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        }
+
+        @Override
+        Object invoke(Object[] args) throws Exception {
+            try {
+                return (Object) handle.invokeExact(args);
+            } catch (ClassCastException e) {
+                throw new IllegalArgumentException("argument type mismatch", e);
+            } catch (NullPointerException e) {
+                // null传给了基本类型参数
+                throw new IllegalArgumentException(e);
+            } catch (Exception e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+    }
+
+    static class ReflectInvoker extends MethodInvoker {
+        private final Object target;
+
+        ReflectInvoker(Method method, Object target) {
+            super(method);
+            this.target = target;
+            ReflectionUtils.makeAccessible(method);
+        }
+
+        @Override
+        Object invoke(Object[] args) throws Exception {
+            return method.invoke(target, args);
+        }
+    }
+
+}
@@ -15,9 +15,20 @@ package org.jretty.dubbo.util;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jretty.util.CollectionUtils;
 import org.jretty.util.ReflectionUtils;
@@ -36,7 +47,32 @@ class MvcConvertUtils {
      * @return ParseValue instance for convert using, null if can't be convert.
      */
     public static ParseValue canConvert(Class<?> clazz) {
-        return clazz == null ? null : commonTypeClassMap.get(clazz);
+        if (clazz == null) {
+            return null;
+        }
+        ParseValue p = customTypeClassMap.get(clazz);
+        if (p == null) {
+            p = commonTypeClassMap.get(clazz);
+        }
+        if (p == null) {
+            p = resolvedTypeClassMap.computeIfAbsent(clazz, MvcConvertUtils::resolveConverter);
+        }
+        return p == NONE ? null : p;
+    }
+    
+    /**
+     * 是否为基本类型及String的内置转换器（未被自定义转换器覆盖）
+     */
+    static boolean isBuiltinConverter(Class<?> clazz, ParseValue p) {
+        return p != null && !customTypeClassMap.containsKey(clazz) && commonTypeClassMap.get(clazz) == p;
+    }
+    
+    /**
+     * 注册自定义类型的转换器（优先于内置转换器）。
+     * 已解析过的Controller方法会继续使用解析时确定的转换器，因此应在创建SpringControllerInvoke之前注册。
+     */
+    public static void registerConverter(Class<?> clazz, ParseValue p) {
+        customTypeClassMap.put(clazz, p);
     }
     
     /**
@@ -60,27 +96,8 @@ class MvcConvertUtils {
      */
     @SuppressWarnings("unchecked")
     public static <T> T convert(String value, Class<T> classType) {
-        Object ret = null;
-        ParseValue p = classType == null ? null : commonTypeClassMap.get(classType);
-        if (p != null)
-            ret = p.parse(value);
-        else {
-            if (MvcVerifyUtils.isInteger(value)) {
-                ret = Integer.parseInt(value);
-            }
-            else if (MvcVerifyUtils.isLong(value)) {
-                ret = Long.parseLong(value);
-            }
-            else if (MvcVerifyUtils.isDouble(value)) {
-                ret = Double.parseDouble(value);
-            }
-            else if (MvcVerifyUtils.isFloat(value)) {
-                ret = Float.parseFloat(value);
-            }
-            else
-                ret = value;
-        }
-        return (T) ret;
+        ParseValue p = canConvert(classType);
+        return (T) (p != null ? p.parse(value) : UNTYPED.parse(value));
     }
 
     /**
@@ -95,22 +112,8 @@ class MvcConvertUtils {
         ParseValue p = classTypeName == null ? null : commonTypeStringMap.get(classTypeName);
         if (p != null)
             ret = p.parse(value);
-        else {
-            if (MvcVerifyUtils.isInteger(value)) {
-                ret = Integer.parseInt(value);
-            }
-            else if (MvcVerifyUtils.isLong(value)) {
-                ret = Long.parseLong(value);
-            }
-            else if (MvcVerifyUtils.isDouble(value)) {
-                ret = Double.parseDouble(value);
-            }
-            else if (MvcVerifyUtils.isFloat(value)) {
-                ret = Float.parseFloat(value);
-            }
-            else
-                ret = value;
-        }
+        else
+            ret = UNTYPED.parse(value);
         return (T) ret;
     }
     
@@ -126,9 +129,13 @@ class MvcConvertUtils {
         Class<?> elementType = arrayType.getComponentType();
         // Allocate a new Array
         Object newArray = Array.newInstance(elementType, values.length);
+        ParseValue p = canConvert(elementType);
+        if (p == null) {
+            p = UNTYPED;
+        }
         // Convert and set each element in the new Array
         for (int i = 0; i < values.length; i++) {
-            Object element = convert(values[i], elementType);
+            Object element = p.parse(values[i]);
             Array.set(newArray, i, element);
         }
         return newArray;
@@ -138,8 +145,12 @@ class MvcConvertUtils {
     public static Object toListValue(Object value, Class<?> listType, Class<?> elementType) {
         String[] values = (String[]) value;
         Collection collection = CollectionUtils.getCollectionObj(listType);
+        ParseValue p = canConvert(elementType);
+        if (p == null) {
+            p = UNTYPED;
+        }
         for (String item : values) {
-            Object listValue = convert(item, elementType);
+            Object listValue = p.parse(item);
             collection.add(listValue);
         }
         return collection;
@@ -187,6 +198,144 @@ class MvcConvertUtils {
 
     private static final Map<Class<?>, ParseValue> commonTypeClassMap = new HashMap<Class<?>, ParseValue>();
     private static final Map<String, ParseValue> commonTypeStringMap = new HashMap<String, ParseValue>();
+    private static final Map<Class<?>, ParseValue> customTypeClassMap = new ConcurrentHashMap<Class<?>, ParseValue>();
+    private static final ConcurrentMap<Class<?>, ParseValue> resolvedTypeClassMap = new ConcurrentHashMap<Class<?>, ParseValue>();
+    
+    /** 不能转换的类型（如JavaBean）的占位 */
+    private static final ParseValue NONE = new ParseValue() {
+        @Override
+        public Object parse(String value) {
+            throw new UnsupportedOperationException();
+        }
+    };
+    
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    /**
+     * 非常用类型的转换器，每种类型只解析一次
+     */
+    private static ParseValue resolveConverter(final Class<?> clazz) {
+        if (clazz.isEnum()) {
+            return new ParseValue() {
+                @SuppressWarnings({ "unchecked", "rawtypes" })
+                @Override
+                public Object parse(String value) {
+                    return Enum.valueOf((Class) clazz, value.trim());
+                }
+            };
+        }
+        if (clazz == BigDecimal.class) {
+            return value -> new BigDecimal(value.trim());
+        }
+        if (clazz == BigInteger.class) {
+            return value -> new BigInteger(value.trim());
+        }
+        if (clazz == LocalDate.class) {
+            return value -> LocalDate.parse(value.trim());
+        }
+        if (clazz == LocalTime.class) {
+            return value -> LocalTime.parse(value.trim());
+        }
+        if (clazz == LocalDateTime.class) {
+            return MvcConvertUtils::parseLocalDateTime;
+        }
+        if (clazz == Instant.class) {
+            return value -> {
+                String v = value.trim();
+                return isDigits(v) ? Instant.ofEpochMilli(Long.parseLong(v)) : Instant.parse(v);
+            };
+        }
+        if (clazz == Date.class) {
+            return value -> {
+                String v = value.trim();
+                if (isDigits(v)) {
+                    return new Date(Long.parseLong(v));
+                }
+                LocalDateTime ldt = v.length() == 10 ? LocalDate.parse(v).atStartOfDay() : parseLocalDateTime(v);
+                return Date.from(ldt.atZone(ZoneId.systemDefault()).toInstant());
+            };
+        }
+        return NONE;
+    }
+    
+    /**
+     * 支持 yyyy-MM-dd HH:mm:ss（与JSON的日期格式一致）和ISO格式（yyyy-MM-ddTHH:mm:ss）
+     */
+    private static LocalDateTime parseLocalDateTime(String value) {
+        String v = value.trim();
+        return v.indexOf('T') > 0 ? LocalDateTime.parse(v) : LocalDateTime.parse(v, DATE_TIME_FORMAT);
+    }
+    
+    private static boolean isDigits(String v) {
+        if (v.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < v.length(); i++) {
+            if (!MvcVerifyUtils.isDigit(v.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 目标类型未知时，根据字符串内容推断类型，只扫描一遍：
+     * 整数（int范围内为Integer，否则为Long，可带L后缀）、小数（Double，带F后缀为Float），其他原样返回字符串。
+     */
+    static final ParseValue UNTYPED = new ParseValue() {
+        @Override
+        public Object parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            int len = value.length();
+            int i = len > 0 && value.charAt(0) == '-' ? 1 : 0;
+            char end = len > 0 ? value.charAt(len - 1) : 0;
+            boolean longSuffix = end == 'l' || end == 'L';
+            boolean floatSuffix = end == 'f' || end == 'F';
+            int last = longSuffix || floatSuffix ? len - 1 : len;
+            int digits = 0;
+            int point = 0;
+            long acc = 0;
+            boolean overflow = false;
+            for (; i < last; i++) {
+                char c = value.charAt(i);
+                if (MvcVerifyUtils.isDigit(c)) {
+                    digits++;
+                    if (point == 0 && !overflow) {
+                        // 按负数累加，可以表示Long.MIN_VALUE
+                        if (acc < (Long.MIN_VALUE + (c - '0')) / 10) {
+                            overflow = true;
+                        } else {
+                            acc = acc * 10 - (c - '0');
+                        }
+                    }
+                } else if (c == '.') {
+                    point++;
+                } else {
+                    return value;
+                }
+            }
+            if (digits == 0) {
+                return value;
+            }
+            boolean negative = value.charAt(0) == '-';
+            if (floatSuffix) {
+                return point <= 1 ? (Object) Float.parseFloat(value) : value;
+            }
+            if (point == 1 && !longSuffix) {
+                return Double.parseDouble(value);
+            }
+            if (point > 0 || overflow || (!negative && acc == Long.MIN_VALUE)) {
+                return value;
+            }
+            long v = negative ? acc : -acc;
+            if (!longSuffix && v <= Integer.MAX_VALUE && v >= Integer.MIN_VALUE) {
+                return (int) v;
+            }
+            return v;
+        }
+    };
 
     public enum COMMON_TYPE {
 
@@ -318,7 +467,7 @@ class MvcConvertUtils {
         commonTypeStringMap.put(COMMON_TYPE.STRING.getValue(), p);
     }
 
-    private interface ParseValue {
+    interface ParseValue {
         Object parse(String value);
     }
     
@@ -0,0 +1,129 @@
+package org.jretty.dubbo.util;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.jretty.apibase.Request;
+import org.jretty.apibase.Result;
+import org.jretty.dubbo.api.Http2DubboService;
+import org.jretty.dubbo.api.ResponseInvalidationListener;
+import org.jretty.dubbo.dto.HttpRequestDto;
+import org.jretty.dubbo.dto.HttpResponseDto;
+import org.jretty.dubbo.dto.HttpStreamChunk;
+import org.jretty.dubbo.dto.RouteSpec;
+
+/**
+ * 网关端的本地缓存：包装Http2DubboService（dubbo引用），缓存routeBytes返回的、服务端标记为可缓存的响应
+ * （maxAge大于0，见{@link SpringControllerInvoke#doInvokeToResponse}），命中时不再发起dubbo调用。
+ * <p>
+ * 1、只缓存GET、HEAD请求；缓存时间为服务端返回的maxAge（不超过服务端缓存的剩余时间）。
+ * 2、键由请求中的全部参数、header、attribute计算，建议先用{@link RequestProjector}裁剪请求，
+ *   否则cookie等无关的header会使键各不相同。
+ * 3、实现了{@link ResponseInvalidationListener}：服务端缓存失效时通知网关丢弃相应条目，不必等到过期。
+ *   跨进程时将本对象导出为dubbo服务，服务端以 cluster="broadcast" 引用后注册为失效监听器。
+ *   响应带有服务端开始生成时的失效代数和服务端缓存实例的epoch，早于该实例已发出的失效通知的响应不会被缓存。
+ *   失效通知只来自执行失效的服务端实例，从其他实例取得的响应仍可能被缓存，最多过时maxAge。
+ * 4、缓存服务端返回的ETag，命中且请求的If-None-Match匹配时返回304（见{@link SpringControllerInvoke#doInvokeToResponse}）。
+ *   If-None-Match不参与计算键。
+ * 5、其他方法直接调用被包装的服务。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class NearCacheHttp2DubboService implements Http2DubboService, ResponseInvalidationListener {
+
+    private final Http2DubboService delegate;
+    private final ResponseCache cache;
+    private final RequestKey key = RequestKey.all();
+
+    /**
+     * @param delegate 被包装的服务（dubbo引用）
+     * @param maximumSize 最大缓存条数
+     */
+    public NearCacheHttp2DubboService(Http2DubboService delegate, int maximumSize) {
+        this.delegate = delegate;
+        this.cache = new ResponseCache(maximumSize);
+    }
+
+    @Override
+    public Result<HttpResponseDto> routeBytes(Request<HttpRequestDto> request) {
+        HttpRequestDto dto = request.getData();
+        if (!RequestKey.isIdempotent(dto.getMethod())) {
+            return delegate.routeBytes(request);
+        }
+        HttpRequest req = new SimpleHttpRequest(dto);
+        String k = key.of(req);
+        if (k == null) {
+            // attribute的值不能计算键
+            return delegate.routeBytes(request);
+        }
+        ResponseCache.Entry e = cache.get(k);
+        if (e != null) {
+            HttpResponseDto resp = new HttpResponseDto(e.body);
+            resp.setMaxAge(Math.max(0, e.expireAt - cache.clock.getAsLong()));
+            resp.setEpoch(e.epoch);
+            resp.setGeneration(e.generation);
+            resp.setEtag(e.etag());
+            if (ETags.matches(req.getHeader(ETags.IF_NONE_MATCH), resp.getEtag())) {
+                resp.setStatus(HttpResponseDto.NOT_MODIFIED);
+                resp.setBody(null);
+            }
+            return Result.create(resp);
+        }
+        Result<HttpResponseDto> result = delegate.routeBytes(request);
+        HttpResponseDto resp = result != null ? result.getData() : null;
+        if (resp != null && resp.getMaxAge() > 0 && resp.getStatus() == 200 && resp.getBody() != null) {
+            cache.put(k, dto.getMethod() + ' ' + dto.getRequestURI(), resp.getMaxAge(), resp.getBody(),
+                    resp.getEpoch(), resp.getGeneration(), resp.getEtag());
+        }
+        return result;
+    }
+
+    @Override
+    public void onInvalidate(String keyPrefix, String epoch, long generation) {
+        cache.applyInvalidation(keyPrefix, epoch, generation);
+    }
+
+    /**
+     * @return 本地缓存（计数、手动失效）
+     */
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public Result<String> route(Request<HttpRequestDto> request) {
+        return delegate.route(request);
+    }
+
+    @Override
+    public CompletableFuture<Result<String>> routeAsync(Request<HttpRequestDto> request) {
+        return delegate.routeAsync(request);
+    }
+
+    @Override
+    public Result<List<Result<String>>> routeBatch(Request<List<HttpRequestDto>> request) {
+        return delegate.routeBatch(request);
+    }
+
+    @Override
+    public Result<HttpStreamChunk> routeStream(Request<HttpRequestDto> request) {
+        return delegate.routeStream(request);
+    }
+
+    @Override
+    public Result<HttpStreamChunk> nextChunk(Request<String> request) {
+        return delegate.nextChunk(request);
+    }
+
+    @Override
+    public void closeStream(Request<String> request) {
+        delegate.closeStream(request);
+    }
+
+    @Override
+    public Result<List<RouteSpec>> routeManifest() {
+        return delegate.routeManifest();
+    }
+
+}
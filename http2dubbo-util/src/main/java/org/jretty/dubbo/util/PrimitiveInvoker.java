@@ -0,0 +1,175 @@
+package org.jretty.dubbo.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jretty.util.ReflectionUtils;
+
+/**
+ * 参数全部为基本类型或String的Controller方法（如 get(@PathVariable long id, @RequestParam int page)）的专用调用器。
+ * <p>
+ * 请求中的字符串直接经由MethodHandle链解析为基本类型并传给目标方法，
+ * 不经过ParseValue装箱、Object[]参数数组和拆箱，参数传递过程不产生对象分配。
+ * 只支持1~4个参数，参数来源为PARAM、PATH、HEADER，且使用内置转换器。
+ * 取不到参数值（且无默认值）时返回{@link #FALLBACK}，由调用方走通用路径，以保持原有的null处理语义。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+class PrimitiveInvoker {
+
+    static final int MAX_ARITY = 4;
+
+    /** 需要走通用调用路径 */
+    static final Object FALLBACK = new Object();
+
+    private static final Map<Class<?>, MethodHandle> PARSERS = new HashMap<Class<?>, MethodHandle>();
+    private static final MethodHandle WRAP_TARGET_EXCEPTION;
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            PARSERS.put(int.class, lookup.findStatic(Integer.class, "parseInt",
+                    MethodType.methodType(int.class, String.class)));
+            PARSERS.put(long.class, lookup.findStatic(Long.class, "parseLong",
+                    MethodType.methodType(long.class, String.class)));
+            PARSERS.put(double.class, lookup.findStatic(Double.class, "parseDouble",
+                    MethodType.methodType(double.class, String.class)));
+            PARSERS.put(float.class, lookup.findStatic(Float.class, "parseFloat",
+                    MethodType.methodType(float.class, String.class)));
+            PARSERS.put(short.class, lookup.findStatic(Short.class, "parseShort",
+                    MethodType.methodType(short.class, String.class)));
+            PARSERS.put(byte.class, lookup.findStatic(Byte.class, "parseByte",
+                    MethodType.methodType(byte.class, String.class)));
+            PARSERS.put(boolean.class, lookup.findStatic(Boolean.class, "parseBoolean",
+                    MethodType.methodType(boolean.class, String.class)));
+            PARSERS.put(char.class, lookup.findStatic(PrimitiveInvoker.class, "parseChar",
+                    MethodType.methodType(char.class, String.class)));
+            WRAP_TARGET_EXCEPTION = lookup.findStatic(PrimitiveInvoker.class, "wrapTargetException",
+                    MethodType.methodType(Object.class, Throwable.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ArgumentResolver[] resolvers;
+    private final MethodHandle handle;
+
+    private PrimitiveInvoker(ArgumentResolver[] resolvers, MethodHandle handle) {
+        this.resolvers = resolvers;
+        this.handle = handle;
+    }
+
+    /**
+     * @return 方法不满足条件时返回null
+     */
+    static PrimitiveInvoker create(Method method, Object target, ArgumentResolver[] resolvers) {
+        if (resolvers.length == 0 || resolvers.length > MAX_ARITY) {
+            return null;
+        }
+        MethodHandle[] filters = new MethodHandle[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            ArgumentResolver r = resolvers[i];
+            if (r.source == ArgumentResolver.Source.BODY || r.source == ArgumentResolver.Source.ATTRIBUTE) {
+                return null;
+            }
+            if (!MvcConvertUtils.isBuiltinConverter(r.paraType, r.converter)) {
+                return null;
+            }
+            if (r.paraType == String.class) {
+                filters[i] = null; // 不需要转换
+            } else if ((filters[i] = PARSERS.get(r.paraType)) == null) {
+                return null;
+            }
+        }
+        try {
+            if (!Modifier.isPublic(method.getModifiers())
+                    || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                ReflectionUtils.makeAccessible(method);
+            }
+            MethodHandle mh = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                mh = mh.bindTo(target);
+            }
+            // 只包装目标方法抛出的异常，参数解析的异常原样抛出（与通用路径一致）
+            MethodHandle handler = WRAP_TARGET_EXCEPTION.asType(
+                    MethodType.methodType(mh.type().returnType(), Throwable.class));
+            handler = MethodHandles.dropArguments(handler, 1, mh.type().parameterList());
+            mh = MethodHandles.catchException(mh, Throwable.class, handler);
+            mh = MethodHandles.filterArguments(mh, 0, filters);
+            mh = mh.asType(MethodType.methodType(Object.class, Collections.nCopies(resolvers.length, String.class)));
+            return new PrimitiveInvoker(resolvers, mh);
+        } catch (IllegalAccessException e) {
+            return null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static char parseChar(String value) {
+        return value.charAt(0);
+    }
+
+    @SuppressWarnings("unused")
+    private static Object wrapTargetException(Throwable t) throws InvocationTargetException {
+        throw new InvocationTargetException(t);
+    }
+
+    /**
+     * 调用目标方法
+     *
+     * @return 方法返回值；取不到参数值时返回{@link #FALLBACK}
+     * @throws InvocationTargetException 目标方法抛出的异常
+     */
+    Object invoke(HttpRequest request, List<String> pathVals) throws Throwable {
+        String a, b, c, d;
+        switch (resolvers.length) {
+        case 1:
+            if ((a = rawValue(0, request, pathVals)) == null) {
+                return FALLBACK;
+            }
+            return (Object) handle.invokeExact(a);
+        case 2:
+            if ((a = rawValue(0, request, pathVals)) == null || (b = rawValue(1, request, pathVals)) == null) {
+                return FALLBACK;
+            }
+            return (Object) handle.invokeExact(a, b);
+        case 3:
+            if ((a = rawValue(0, request, pathVals)) == null || (b = rawValue(1, request, pathVals)) == null
+                    || (c = rawValue(2, request, pathVals)) == null) {
+                return FALLBACK;
+            }
+            return (Object) handle.invokeExact(a, b, c);
+        default:
+            if ((a = rawValue(0, request, pathVals)) == null || (b = rawValue(1, request, pathVals)) == null
+                    || (c = rawValue(2, request, pathVals)) == null || (d = rawValue(3, request, pathVals)) == null) {
+                return FALLBACK;
+            }
+            return (Object) handle.invokeExact(a, b, c, d);
+        }
+    }
+
+    private String rawValue(int i, HttpRequest request, List<String> pathVals) {
+        ArgumentResolver r = resolvers[i];
+        String sval;
+        switch (r.source) {
+        case PATH:
+            return pathVals.get(r.pathIndex);
+        case HEADER:
+            sval = request.getHeader(r.key);
+            break;
+        default:
+            sval = request.getParameter(r.key);
+        }
+        return sval != null ? sval : r.defaultVal;
+    }
+
+}
@@ -1,8 +1,17 @@
 package org.jretty.dubbo.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * 
@@ -31,4 +40,129 @@ class PrivateJson {
             throw new IllegalArgumentException(e);
         }
     }
+    
+    /** 
+     * 为指定类型（可以是泛型类型，如 Request&lt;OrderForm&gt;）创建ObjectReader，创建时即解析好根类型的反序列化器
+     */
+    static ObjectReader readerFor(Type type) {
+        return objectMapper.readerFor(objectMapper.constructType(type));
+    }
+    
+    /** 
+     * 为指定类型创建TypedWriter，创建时即解析好根类型的序列化器
+     * 
+     * @return 类型为void、Object时返回null（序列化器只能在运行时按实际类型确定）
+     */
+    static TypedWriter writerFor(Type type) {
+        JavaType javaType = objectMapper.constructType(type);
+        Class<?> raw = javaType.getRawClass();
+        if (raw == void.class || raw == Void.class || raw == Object.class) {
+            return null;
+        }
+        return new TypedWriter(raw, javaType.isContainerType() && isFinalContent(javaType),
+                objectMapper.writerFor(javaType));
+    }
+    
+    /** 
+     * 容器的元素类型（Map还包括key类型，可逐层嵌套）是否都不可能有子类
+     */
+    private static boolean isFinalContent(JavaType type) {
+        if (!type.isContainerType() && !type.isReferenceType()) {
+            return type.isFinal() || type.isPrimitive();
+        }
+        JavaType keyType = type.getKeyType();
+        if (keyType != null && !isFinalContent(keyType)) {
+            return false;
+        }
+        return isFinalContent(type.getContentType());
+    }
+    
+    public static <T> T parseObject(ObjectReader reader, String json) {
+        try {
+            return reader.readValue(json);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    public static <T> T parseObject(ObjectReader reader, byte[] json, String charset) {
+        try {
+            if (isUtf8(charset)) {
+                return reader.readValue(json);
+            }
+            return reader.readValue(new InputStreamReader(new ByteArrayInputStream(json), charset));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    /** 
+     * 对象转换成JSON字符串，优先使用预先创建的TypedWriter
+     * 
+     * @param writer 可以为null
+     */
+    public static String toJSONString(TypedWriter writer, Object object) {
+        if (writer == null || !writer.accepts(object)) {
+            return toJSONString(object);
+        }
+        try {
+            return writer.writer.writeValueAsString(object);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    /** 
+     * 对象转换成UTF-8编码的JSON字节，不经过String（Jackson内部使用可回收的缓冲区）
+     * 
+     * @param writer 可以为null
+     */
+    public static byte[] toJSONBytes(TypedWriter writer, Object object) {
+        try {
+            if (writer == null || !writer.accepts(object)) {
+                return objectMapper.writeValueAsBytes(object);
+            }
+            return writer.writer.writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    /** 
+     * 创建UTF-8编码的JsonGenerator，writeObject时使用与toJSONString相同的配置
+     */
+    static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+    }
+    
+    /**
+     * 按声明类型预先创建的ObjectWriter。只有运行时类型与声明类型一致时才使用，
+     * 否则（如声明为接口或父类）按实际类型序列化，以免丢失子类属性。
+     * 声明为集合、Map、数组且元素类型都是final类时（如List&lt;Dto&gt;、Map&lt;String, Long&gt;），
+     * 运行时对象是声明类型的实例即可使用（如返回ArrayList）。元素类型不是final类时不能这样用，
+     * 因为指定根类型的ObjectWriter按元素的声明类型序列化，会丢失元素子类的属性。
+     */
+    static class TypedWriter {
+        final Class<?> rawClass;
+        final boolean acceptSubtypes;
+        final ObjectWriter writer;
+        
+        TypedWriter(Class<?> rawClass, boolean acceptSubtypes, ObjectWriter writer) {
+            this.rawClass = rawClass;
+            this.acceptSubtypes = acceptSubtypes;
+            this.writer = writer;
+        }
+        
+        boolean accepts(Object object) {
+            if (object == null) {
+                return false;
+            }
+            return acceptSubtypes ? rawClass.isInstance(object) : object.getClass() == rawClass;
+        }
+    }
+    
+    private static boolean isUtf8(String charset) {
+        return charset == null || "UTF-8".equalsIgnoreCase(charset) || "UTF8".equalsIgnoreCase(charset)
+                || "US-ASCII".equalsIgnoreCase(charset);
+    }
 }
@@ -1,5 +1,7 @@
 package org.jretty.dubbo.util;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -22,6 +24,19 @@ class RequestBodyTool {
     private static final List<String> INCLUDE_METHODS = Arrays.asList("POST", "PUT", "PATCH");
     public static final String BODY_NO_PARSE_FLAG = "[Not Support Parsing]";
 
+    private static final byte[] EMPTY = new byte[0];
+    /** 按Content-Length预先分配的上限，超过时边读边扩容（避免客户端声明很大的长度却不发送数据） */
+    static final int PREALLOCATE_LIMIT = 1024 * 1024;
+    /** 每个线程保留的读缓冲区的初始大小和最大大小，超过最大大小的缓冲区用完后丢弃 */
+    private static final int SCRATCH_SIZE = 8 * 1024;
+    private static final int SCRATCH_RETAIN_LIMIT = 256 * 1024;
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[SCRATCH_SIZE];
+        }
+    };
+
     public static boolean shouldParseBody(HttpServletRequest request) {
         String contentType = request.getContentType();
         String method = request.getMethod();
@@ -36,4 +51,60 @@ class RequestBodyTool {
         }
         return false;
     }
+
+    /**
+     * 读取body的原始字节，返回的数组交给DTO持有（长度即为body长度）。
+     * <p>
+     * 有Content-Length（且不超过{@link #PREALLOCATE_LIMIT}）时直接读入该长度的数组，不扩容也不复制；
+     * 否则（chunked或长度很大）读入当前线程复用的缓冲区，读完后复制一次。
+     */
+    public static byte[] readBody(HttpServletRequest request) throws IOException {
+        int length = request.getContentLength();
+        if (length == 0) {
+            return EMPTY;
+        }
+        InputStream in = request.getInputStream();
+        if (length > 0 && length <= PREALLOCATE_LIMIT) {
+            byte[] buf = new byte[length];
+            int n = readFully(in, buf, 0);
+            if (n == length) {
+                return buf;
+            }
+            // 实际数据比Content-Length短
+            return Arrays.copyOf(buf, n);
+        }
+        return readUnknownLength(in);
+    }
+
+    private static byte[] readUnknownLength(InputStream in) throws IOException {
+        byte[] buf = SCRATCH.get();
+        int n = 0;
+        for (;;) {
+            n = readFully(in, buf, n);
+            if (n < buf.length) {
+                break;
+            }
+            buf = Arrays.copyOf(buf, buf.length << 1);
+        }
+        if (buf.length <= SCRATCH_RETAIN_LIMIT) {
+            SCRATCH.set(buf);
+        }
+        return n == 0 ? EMPTY : Arrays.copyOf(buf, n);
+    }
+
+    /**
+     * 从off开始读，直到读满buf或者流结束
+     * 
+     * @return 读完后buf中的数据长度
+     */
+    private static int readFully(InputStream in, byte[] buf, int off) throws IOException {
+        while (off < buf.length) {
+            int r = in.read(buf, off, buf.length - off);
+            if (r < 0) {
+                break;
+            }
+            off += r;
+        }
+        return off;
+    }
 }
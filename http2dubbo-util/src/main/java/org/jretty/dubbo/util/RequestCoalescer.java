@@ -0,0 +1,129 @@
+package org.jretty.dubbo.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 合并相同的并发请求（single-flight）：键相同的请求同时到达时，只有第一个请求调用Controller，
+ * 其他请求等待并共享其结果（或异常），用于缓存失效瞬间大量相同请求同时访问数据库的情况。
+ * <p>
+ * 调用结束后即移除，不缓存结果（缓存见{@link ResponseCache}）。
+ * 等待共享结果的请求最多等待超时时间（默认与dubbo调用的默认超时时间一致，为1秒），超时则以TimeoutException失败，
+ * 不影响正在执行的调用。
+ * 提供实际调用次数、被合并的请求数（总数及每个路由）、等待超时的请求数的计数。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RequestCoalescer {
+
+    static final long DEFAULT_TIMEOUT_MILLIS = 1000;
+
+    private volatile long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> coalescedByRoute = new ConcurrentHashMap<>();
+    private final LongAdder timeouts = new LongAdder();
+
+    RequestCoalescer() {
+        super();
+    }
+
+    void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    interface Invocation {
+        Object call() throws Throwable;
+    }
+
+    /**
+     * 执行调用：已有键相同的调用正在执行时，等待并返回其结果，超过超时时间仍未完成则抛出TimeoutException
+     *
+     * @param route 路由标识，用于计数
+     * @param key 请求的规范化键，见{@link RequestKey}
+     */
+    Object execute(String route, String key, Invocation invocation) throws Throwable {
+        CompletableFuture<Object> f = new CompletableFuture<Object>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, f);
+        if (existing != null) {
+            coalesced.increment();
+            coalescedByRoute.computeIfAbsent(route, r -> new LongAdder()).increment();
+            long timeout = timeoutMillis;
+            try {
+                return existing.get(timeout, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            } catch (TimeoutException e) {
+                timeouts.increment();
+                throw new TimeoutException("coalesced request timeout after " + timeout + " ms: " + route);
+            }
+        }
+        invocations.increment();
+        try {
+            Object result = invocation.call();
+            f.complete(result);
+            return result;
+        } catch (Throwable e) {
+            f.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, f);
+        }
+    }
+
+    /**
+     * @return 正在执行的调用数
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return 实际调用Controller的次数
+     */
+    public long getInvocationCount() {
+        return invocations.sum();
+    }
+
+    /**
+     * @return 被合并（共享其他请求结果）的请求数
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return 等待共享结果超时的请求数
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return 每个路由被合并的请求数
+     */
+    public Map<String, Long> getCoalescedCountByRoute() {
+        Map<String, Long> ret = new HashMap<String, Long>();
+        for (Map.Entry<String, LongAdder> en : coalescedByRoute.entrySet()) {
+            ret.put(en.getKey(), en.getValue().sum());
+        }
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestCoalescer [inFlight=" + getInFlightCount() + ", invocations=" + getInvocationCount()
+                + ", coalesced=" + getCoalescedCount() + ", timeouts=" + getTimeoutCount() + "]";
+    }
+
+}
@@ -0,0 +1,155 @@
+package org.jretty.dubbo.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 请求的规范化键：请求方法、url，以及指定的参数、header、attribute的值，用于响应缓存等。
+ * <p>
+ * 格式为 GET /dict/list?{参数}#{header}@{attribute}，每个名称和值都带长度前缀，
+ * 值中含有 &amp;、= 等字符时也不会与其他请求的键相同。
+ * <p>
+ * attribute的值只能是String或基本类型的包装类。其他类型的toString可能不完整（不同的值得到相同的键，
+ * 共享了其他用户的响应）或者带有对象地址，这样的请求无法计算键，不缓存、不合并。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+final class RequestKey {
+
+    private static final String[] NONE = new String[0];
+
+    /** 可以参与计算键的attribute值的类型（及其基本类型） */
+    private static final Set<Class<?>> SCALAR_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(String.class,
+            Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+            Double.class));
+
+    /** 参与计算键的参数名称（已排序），为null时表示全部参数 */
+    private final String[] params;
+    private final String[] headers;
+    private final String[] attributes;
+    /** 是否使用请求中的全部header、attribute */
+    private final boolean all;
+
+    /**
+     * @param params 参数名称，为null时使用请求中的全部参数（按名称排序）
+     * @param headers header名称，可以为null
+     * @param attributes attribute名称，可以为null
+     */
+    RequestKey(String[] params, String[] headers, String[] attributes) {
+        this.params = params != null ? sorted(params) : null;
+        this.headers = headers != null ? sorted(headers) : NONE;
+        this.attributes = attributes != null ? sorted(attributes) : NONE;
+        this.all = false;
+    }
+
+    private RequestKey() {
+        this.params = null;
+        this.headers = NONE;
+        this.attributes = NONE;
+        this.all = true;
+    }
+
+    /**
+     * 使用请求中的全部参数、header、attribute，用于网关端（请求已按路由清单裁剪时，即为方法实际读取的数据）
+     */
+    static RequestKey all() {
+        return new RequestKey();
+    }
+
+    /**
+     * @return 是否为可以缓存、合并的幂等请求（GET、HEAD）
+     */
+    static boolean isIdempotent(String method) {
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    /**
+     * @return 是否为可以参与计算键的attribute类型：String、基本类型及其包装类
+     */
+    static boolean isScalar(Class<?> type) {
+        return type.isPrimitive() || SCALAR_TYPES.contains(type);
+    }
+
+    private static String[] sorted(String[] names) {
+        String[] ret = names.clone();
+        Arrays.sort(ret);
+        return ret;
+    }
+
+    /**
+     * @return 请求的键；有attribute的值不是String或基本类型的包装类时返回null（不能缓存、合并）
+     */
+    String of(HttpRequest request) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(request.getMethod()).append(' ').append(request.getRequestURI()).append('?');
+        String[] names = params;
+        if (names == null) {
+            Map<String, String[]> map = request.getParameterMap();
+            names = map.keySet().toArray(new String[map.size()]);
+            Arrays.sort(names);
+        }
+        for (String name : names) {
+            String[] values = request.getParameterValues(name);
+            if (values == null) {
+                continue;
+            }
+            append(sb, name).append('=');
+            for (String value : values) {
+                append(sb, value);
+            }
+        }
+        sb.append('#');
+        String[] headers = all ? names(request.getHeaderNames(), true) : this.headers;
+        for (String name : headers) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                append(append(sb, name).append('='), value);
+            }
+        }
+        sb.append('@');
+        String[] attributes = all ? names(request.getAttributeNames(), false) : this.attributes;
+        for (String name : attributes) {
+            Object value = request.getAttribute(name);
+            if (value != null) {
+                if (!isScalar(value.getClass())) {
+                    return null;
+                }
+                append(append(sb, name).append('='), value.toString());
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param lowerCase 是否转为小写（header名称不区分大小写），并且跳过If-None-Match
+     */
+    private static String[] names(Enumeration<String> e, boolean lowerCase) {
+        List<String> list = new ArrayList<String>();
+        while (e.hasMoreElements()) {
+            String name = e.nextElement();
+            if (lowerCase && ETags.IF_NONE_MATCH.equalsIgnoreCase(name)) {
+                // 条件请求与普通请求共享缓存条目
+                continue;
+            }
+            list.add(lowerCase ? name.toLowerCase(Locale.ROOT) : name);
+        }
+        Collections.sort(list);
+        return list.toArray(new String[list.size()]);
+    }
+
+    private static StringBuilder append(StringBuilder sb, String s) {
+        if (s == null) {
+            return sb.append('-');
+        }
+        return sb.append(s.length()).append(':').append(s);
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.jretty.dubbo.util;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jretty.dubbo.dto.HttpRequestDto;
+import org.jretty.dubbo.dto.RouteSpec;
+
+/**
+ * 网关端的请求裁剪：根据服务端发布的路由清单（见{@link SpringControllerInvoke#getRouteManifest()}），
+ * 只保留目标Controller方法实际读取的header、参数、attribute，不需要body时去掉body，再序列化传输。
+ * GET、HEAD请求的If-None-Match总是保留。
+ * <p>
+ * 路由匹配规则与服务端一致。未匹配到路由时原样返回（由服务端返回404）。
+ * 服务端发布新版本后，网关需要重新获取路由清单。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RequestProjector {
+
+    private final RouteTrie routes = new RouteTrie();
+
+    public RequestProjector(Collection<RouteSpec> manifest) {
+        ControllerMatchMeta ctrl = new ControllerMatchMeta();
+        for (RouteSpec spec : manifest) {
+            ControllerMatchMeta.MethodMatchMeta cm = ctrl.new MethodMatchMeta();
+            cm.methodType = spec.getMethodType();
+            cm.methodUrl = spec.getUrl();
+            cm.spec = spec;
+            routes.add(spec.getUrl(), spec.getClassUrl(), cm);
+        }
+    }
+
+    /**
+     * 裁剪请求，返回新的DTO（不修改原DTO，新的DTO已冻结）
+     */
+    public HttpRequestDto project(HttpRequestDto dto) {
+        if (dto.getRequestURI() == null || dto.getMethod() == null) {
+            return dto;
+        }
+        RouteTrie.RouteMatch rm = routes.match(dto.getRequestURI(), dto.getMethod());
+        if (rm == null) {
+            return dto;
+        }
+        RouteSpec spec = rm.meta.spec;
+        HttpRequestDto ret = new HttpRequestDto();
+        ret.setMethod(dto.getMethod());
+        ret.setRequestURI(dto.getRequestURI());
+        ret.setCharacterEncoding(dto.getCharacterEncoding());
+        ret.setContentType(dto.getContentType());
+        ret.setRequestedSessionId(dto.getRequestedSessionId());
+        if (spec.isBody()) {
+            ret.setBodyBytes(dto.getBodyBytes());
+            ret.setBodyCharset(dto.getBodyCharset());
+            if (dto.getBodyBytes() == null) {
+                ret.setBodyString(dto.getBodyString());
+            }
+        }
+        Map<String, String> headers = pick(dto.getHeaders(), spec.getHeaders(), new CaseInsensitiveHeaderMap<String>());
+        if (dto.getHeaders() != null && RequestKey.isIdempotent(dto.getMethod())) {
+            // 条件请求的header总是保留（服务端据此返回304）
+            String ifNoneMatch = dto.getHeaders().get(ETags.IF_NONE_MATCH);
+            if (ifNoneMatch != null) {
+                headers.put(ETags.IF_NONE_MATCH, ifNoneMatch);
+            }
+        }
+        ret.setHeaders(headers);
+        ret.setParameters(spec.isAllParams() ? dto.getParameters()
+                : pick(dto.getParameters(), spec.getParams(), new LinkedHashMap<String, String[]>()));
+        ret.setAttributes(pick(dto.getAttributes(), spec.getAttributes(), new LinkedHashMap<String, Object>()));
+        return ret.freeze();
+    }
+
+    private static <V> Map<String, V> pick(Map<String, V> src, String[] names, Map<String, V> dest) {
+        if (src == null || names == null) {
+            return dest;
+        }
+        for (String name : names) {
+            V v = src.get(name);
+            if (v != null) {
+                dest.put(name, v);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * 根据方法的参数取值计划生成路由描述
+     */
+    static RouteSpec describe(ControllerMatchMeta.MethodMatchMeta cm, String classUrl) {
+        Set<String> headers = new LinkedHashSet<String>();
+        Set<String> params = new LinkedHashSet<String>();
+        Set<String> attributes = new LinkedHashSet<String>();
+        boolean allParams = false;
+        boolean body = false;
+        for (ArgumentResolver r : cm.resolvers) {
+            switch (r.source) {
+            case PARAM:
+                if (r.beanMeta != null) {
+                    // 参数绑定到JavaBean：属性名，以及数组形式的 属性名[]
+                    for (String name : r.beanMeta.propertyNames()) {
+                        params.add(name);
+                        params.add(name + "[]");
+                    }
+                } else if (r.key != null) {
+                    params.add(r.key);
+                } else {
+                    allParams = true;
+                }
+                break;
+            case HEADER:
+                if (r.key != null) {
+                    headers.add(r.key);
+                }
+                break;
+            case ATTRIBUTE:
+                if (r.key != null) {
+                    attributes.add(r.key);
+                }
+                break;
+            case BODY:
+                body = true;
+                break;
+            default:
+                // PATH：从url中取值
+            }
+        }
+        RouteSpec spec = new RouteSpec();
+        spec.setMethodType(cm.methodType);
+        spec.setClassUrl(classUrl);
+        spec.setUrl(cm.methodUrl);
+        spec.setHeaders(headers.toArray(new String[headers.size()]));
+        spec.setParams(params.toArray(new String[params.size()]));
+        spec.setAttributes(attributes.toArray(new String[attributes.size()]));
+        spec.setAllParams(allParams);
+        spec.setBody(body);
+        return spec;
+    }
+
+}
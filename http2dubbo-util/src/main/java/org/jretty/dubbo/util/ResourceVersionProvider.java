@@ -0,0 +1,22 @@
+package org.jretty.dubbo.util;
+
+/**
+ * Controller可选实现的接口：提供资源的当前版本（如数据的更新时间、版本号），用于计算ETag。
+ * <p>
+ * 请求的If-None-Match与按版本计算的ETag相同时，直接返回304，不再调用Controller方法（见
+ * {@link SpringControllerInvoke#doInvokeToResponse}）。版本应当能低成本地取得（如从缓存中读取），
+ * 且内容变化时版本一定变化。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public interface ResourceVersionProvider {
+
+    /**
+     * @param route 路由标识：请求方法 + 空格 + 方法的url，如 "GET /item/detail/{id}"
+     * @param request 请求
+     * @return 资源的当前版本，返回null时按响应内容计算ETag
+     */
+    Object getResourceVersion(String route, HttpRequest request);
+
+}
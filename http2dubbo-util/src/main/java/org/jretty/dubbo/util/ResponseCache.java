@@ -0,0 +1,374 @@
+package org.jretty.dubbo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.jretty.dubbo.api.ResponseInvalidationListener;
+
+/**
+ * 服务端的响应缓存：缓存幂等GET路由已编码好的响应字节，命中时不再绑定参数、调用Controller和序列化。
+ * <p>
+ * 1、通过{@link CacheResponse}注解或{@link SpringControllerInvoke#setResponseCacheRoutes}按路由开启，
+ *   键为 (请求方法, url, 方法用到的参数、header、attribute的值)，见{@link RequestKey}。
+ * 2、每个条目有过期时间；分段加锁，每段是一个按访问顺序排列的LinkedHashMap（LRU），总条数有上限。
+ * 3、支持按路由或者按键前缀（如 "GET /dict/"）主动失效。
+ * 4、提供命中、未命中、淘汰、过期的计数。
+ * 5、失效时本实例的失效代数加1，并通知监听器（如各网关的本地缓存）。
+ *   条目带有开始生成时的 (epoch, 代数)，在最近一次失效之前开始生成的响应不会被缓存，避免失效期间生成的旧数据被缓存下来。
+ *   代数是每个实例自己的计数器，epoch为创建时随机生成的标识，只有同一epoch的代数才相互比较，不依赖各服务端的时钟。
+ * 6、失效只作用于本实例和它的监听器。有多个服务端实例时，其他实例缓存的响应（以及网关从其他实例取得的响应）
+ *   要到过期才会更新，除非在每个实例上都执行失效（如通过以 cluster="broadcast" 引用的管理接口）；
+ *   此时ttl就是数据可能过时的最长时间。
+ * <p>
+ * 网关端的本地缓存（{@link NearCacheHttp2DubboService}）也使用本类。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class ResponseCache {
+
+    private static final int MAX_STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private final List<ResponseInvalidationListener> listeners;
+    /** 本实例失效代数的标识，创建时随机生成 */
+    final String epoch = UUID.randomUUID().toString();
+    /** 本实例当前的失效代数，0表示还没有失效过，每次失效加1 */
+    private final AtomicLong generation = new AtomicLong();
+    /** 收到的其他缓存（服务端）的失效代数：epoch -&gt; 最近一次失效的代数，每个服务端实例（每次启动）一项 */
+    private final ConcurrentHashMap<String, Long> remoteGenerations = new ConcurrentHashMap<String, Long>();
+
+    /** 当前时间（毫秒），测试时可替换 */
+    LongSupplier clock = System::currentTimeMillis;
+
+    ResponseCache(int maximumSize) {
+        this(maximumSize, Collections.<ResponseInvalidationListener>emptyList());
+    }
+
+    /**
+     * @param listeners 失效监听器（可以在创建之后再添加）
+     */
+    ResponseCache(int maximumSize, List<ResponseInvalidationListener> listeners) {
+        this.listeners = listeners;
+        int n = 1;
+        while (n < MAX_STRIPES && n * 64 <= maximumSize) {
+            n <<= 1;
+        }
+        this.stripes = new Stripe[n];
+        this.mask = n - 1;
+        int capacity = Math.max(1, maximumSize / n);
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * 路由的缓存配置
+     */
+    static final class Policy {
+        /** 路由标识，如 GET /dict/{type} */
+        final String route;
+        final long ttlMillis;
+        final RequestKey key;
+
+        Policy(String route, long ttlMillis, RequestKey key) {
+            this.route = route;
+            this.ttlMillis = ttlMillis;
+            this.key = key;
+        }
+    }
+
+    /**
+     * 缓存条目，body为UTF-8编码的json
+     */
+    static final class Entry {
+        final String route;
+        final byte[] body;
+        final long expireAt;
+        /** 生成响应的缓存（服务端）的epoch */
+        final String epoch;
+        /** 开始生成响应时的失效代数 */
+        final long generation;
+        private String json;
+        private String etag;
+
+        Entry(String route, byte[] body, long expireAt, String epoch, long generation, String etag) {
+            this.route = route;
+            this.body = body;
+            this.expireAt = expireAt;
+            this.epoch = epoch;
+            this.generation = generation;
+            this.etag = etag;
+        }
+
+        String json() {
+            String s = json;
+            if (s == null) {
+                json = s = new String(body, StandardCharsets.UTF_8);
+            }
+            return s;
+        }
+
+        /**
+         * @return 缓存时指定的ETag，未指定时为响应字节的hash（首次使用时计算）
+         */
+        String etag() {
+            String s = etag;
+            if (s == null) {
+                etag = s = ETags.of(body);
+            }
+            return s;
+        }
+    }
+
+    Entry get(String key) {
+        Stripe stripe = stripe(key);
+        Entry e;
+        boolean expired = false;
+        synchronized (stripe) {
+            e = stripe.map.get(key);
+            if (e != null && e.expireAt <= clock.getAsLong()) {
+                stripe.map.remove(key);
+                e = null;
+                expired = true;
+            }
+        }
+        if (e != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            if (expired) {
+                expirations.increment();
+            }
+        }
+        return e;
+    }
+
+    /**
+     * @return 当前的代数，开始生成响应之前取得，缓存时传给put
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    Entry put(String key, Policy policy, byte[] body, long generation) {
+        return put(key, policy.route, policy.ttlMillis, body, epoch, generation, null);
+    }
+
+    /**
+     * 缓存响应；generation早于该epoch最近一次失效的代数时不缓存（仍然返回条目）
+     * 
+     * @param epoch 生成响应的缓存的epoch，本实例生成时为{@link #epoch}，为null时不缓存
+     * @param etag 响应的ETag，为null时按响应字节计算
+     */
+    Entry put(String key, String route, long ttlMillis, byte[] body, String epoch, long generation, String etag) {
+        Entry e = new Entry(route, body, clock.getAsLong() + ttlMillis, epoch, generation, etag);
+        Stripe stripe = stripe(key);
+        boolean evicted = false;
+        synchronized (stripe) {
+            // 在锁内检查：失效先设置代数、再逐个加锁清除，锁内看到旧代数时该分段尚未清除，之后会被清除
+            if (generation < invalidatedGeneration(epoch)) {
+                return e;
+            }
+            if (stripe.map.size() >= stripe.capacity && !stripe.map.containsKey(key)) {
+                Iterator<Entry> it = stripe.map.values().iterator();
+                it.next();
+                it.remove();
+                evicted = true;
+            }
+            stripe.map.put(key, e);
+        }
+        if (evicted) {
+            evictions.increment();
+        }
+        return e;
+    }
+
+    /**
+     * 使某个路由的全部缓存失效
+     *
+     * @param route 路由标识：请求方法 + 空格 + 方法的url，如 "GET /dict/{type}"（与路由清单中的一致）
+     * @return 失效的条目数
+     */
+    public int invalidateRoute(String route) {
+        long generation = nextGeneration();
+        int n = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Iterator<Entry> it = stripe.map.values().iterator(); it.hasNext();) {
+                    if (it.next().route.equals(route)) {
+                        it.remove();
+                        n++;
+                    }
+                }
+            }
+        }
+        notifyListeners(routePrefix(route), generation);
+        return n;
+    }
+
+    /**
+     * 使键以指定前缀开头的缓存失效，键以 请求方法 + 空格 + 请求url 开头，如 "GET /dict/" 匹配 /dict/ 下的全部GET请求
+     *
+     * @return 失效的条目数
+     */
+    public int invalidate(String keyPrefix) {
+        long generation = nextGeneration();
+        int n = invalidateLocal(keyPrefix);
+        notifyListeners(keyPrefix, generation);
+        return n;
+    }
+
+    /**
+     * 收到其他缓存（服务端）的失效通知：记录其代数，并使本地的条目失效（不论条目来自哪个服务端），不再通知监听器
+     */
+    int applyInvalidation(String keyPrefix, String epoch, long generation) {
+        remoteGenerations.merge(epoch, generation, Math::max);
+        return invalidateLocal(keyPrefix);
+    }
+
+    /**
+     * @return 该epoch最近一次失效的代数；epoch未知（为null）时返回Long.MAX_VALUE，即不能缓存
+     */
+    private long invalidatedGeneration(String epoch) {
+        if (epoch == null) {
+            return Long.MAX_VALUE;
+        }
+        if (epoch.equals(this.epoch)) {
+            return generation.get();
+        }
+        Long g = remoteGenerations.get(epoch);
+        return g == null ? 0 : g;
+    }
+
+    private int invalidateLocal(String keyPrefix) {
+        int n = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Iterator<String> it = stripe.map.keySet().iterator(); it.hasNext();) {
+                    if (it.next().startsWith(keyPrefix)) {
+                        it.remove();
+                        n++;
+                    }
+                }
+            }
+        }
+        return n;
+    }
+
+    public void clear() {
+        long generation = nextGeneration();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.map.clear();
+            }
+        }
+        notifyListeners("", generation);
+    }
+
+    /**
+     * 生成新的失效代数（加1）。先于删除条目设置，之后开始生成的响应才能被缓存
+     */
+    private long nextGeneration() {
+        return generation.incrementAndGet();
+    }
+
+    private void notifyListeners(String keyPrefix, long generation) {
+        RuntimeException error = null;
+        for (ResponseInvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidate(keyPrefix, epoch, generation);
+            } catch (RuntimeException e) {
+                // 一个监听器出错（如网关不可用）不影响通知其他监听器
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * 路由对应的请求前缀：路由中第一个{或*之前的部分，如 GET /dict/{type} -&gt; GET /dict/
+     */
+    static String routePrefix(String route) {
+        int i = 0;
+        while (i < route.length() && route.charAt(i) != '{' && route.charAt(i) != '*') {
+            i++;
+        }
+        return route.substring(0, i);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.map.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache [size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", expirations=" + getExpirationCount() + "]";
+    }
+
+    /**
+     * @return 键所在的分段（同时作为该分段的锁）
+     */
+    Stripe stripe(String key) {
+        return stripes[spread(key.hashCode()) & mask];
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x45d9f3b;
+        return h ^ (h >>> 16);
+    }
+
+    static final class Stripe {
+        final int capacity;
+        final LinkedHashMap<String, Entry> map;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+package org.jretty.dubbo.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 模板url的路由缓存：(请求方法, url) -> 匹配到的方法及路径变量值。
+ * <p>
+ * 1、分段加锁，每段是一个按访问顺序排列的LinkedHashMap（LRU），总条数有上限。
+ * 2、准入策略采用TinyLFU：每段维护一个4位计数的Count-Min Sketch记录访问频率，
+ *   缓存满时，只有新条目的访问频率高于将被淘汰的LRU条目时才会被接纳，
+ *   避免遍历大量不重复id的请求把热点条目冲掉。
+ * 3、提供命中、未命中、淘汰、拒绝准入的计数。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RouteCache {
+
+    private static final int MAX_STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    RouteCache(int maximumSize) {
+        int n = 1;
+        while (n < MAX_STRIPES && n * 64 <= maximumSize) {
+            n <<= 1;
+        }
+        this.stripes = new Stripe[n];
+        this.mask = n - 1;
+        int capacity = Math.max(1, maximumSize / n);
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    RouteTrie.RouteMatch get(String methodType, String url) {
+        String key = key(methodType, url);
+        int hash = spread(key.hashCode());
+        Stripe stripe = stripes[hash & mask];
+        RouteTrie.RouteMatch rm;
+        synchronized (stripe) {
+            stripe.sketch.increment(hash);
+            rm = stripe.map.get(key);
+        }
+        if (rm != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return rm;
+    }
+
+    void put(String methodType, String url, RouteTrie.RouteMatch rm) {
+        String key = key(methodType, url);
+        int hash = spread(key.hashCode());
+        Stripe stripe = stripes[hash & mask];
+        synchronized (stripe) {
+            if (stripe.map.size() < stripe.capacity || stripe.map.containsKey(key)) {
+                stripe.map.put(key, rm);
+                return;
+            }
+            Iterator<Map.Entry<String, RouteTrie.RouteMatch>> it = stripe.map.entrySet().iterator();
+            String victim = it.next().getKey();
+            if (stripe.sketch.frequency(hash) <= stripe.sketch.frequency(spread(victim.hashCode()))) {
+                rejections.increment();
+                return;
+            }
+            it.remove();
+            stripe.map.put(key, rm);
+        }
+        evictions.increment();
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.map.clear();
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.map.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return 缓存已满、且访问频率不足而未被接纳的次数
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteCache [size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", rejections=" + getRejectionCount() + "]";
+    }
+
+    private static String key(String methodType, String url) {
+        return methodType + ' ' + url;
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x45d9f3b;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Stripe {
+        final int capacity;
+        final LinkedHashMap<String, RouteTrie.RouteMatch> map;
+        final FrequencySketch sketch;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<String, RouteTrie.RouteMatch>(16, 0.75f, true);
+            this.sketch = new FrequencySketch(capacity);
+        }
+    }
+
+    /**
+     * 4位计数的Count-Min Sketch，每个long存16个计数器，计数器总数为容量的64倍左右。
+     * 累计记录次数达到容量的10倍时，所有计数减半（老化），使频率能反映近期的访问情况。
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+                0xcbf29ce484222325L };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int size;
+
+        FrequencySketch(int capacity) {
+            int n = 16;
+            while (n < capacity * 4) {
+                n <<= 1;
+            }
+            this.table = new long[n];
+            this.tableMask = n - 1;
+            this.sampleSize = Math.max(10 * capacity, 160);
+        }
+
+        int frequency(int hash) {
+            int freq = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                long h = indexHash(hash, i);
+                int index = (int) h & tableMask;
+                int offset = ((int) (h >>> 32) & 15) << 2;
+                freq = Math.min(freq, (int) ((table[index] >>> offset) & 0xfL));
+            }
+            return freq;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                long h = indexHash(hash, i);
+                int index = (int) h & tableMask;
+                int offset = ((int) (h >>> 32) & 15) << 2;
+                long mask = 0xfL << offset;
+                if ((table[index] & mask) != mask) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++size >= sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size >>>= 1;
+        }
+
+        private static long indexHash(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return h ^ (h << 32);
+        }
+    }
+
+}
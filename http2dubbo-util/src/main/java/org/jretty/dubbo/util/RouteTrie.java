@@ -0,0 +1,308 @@
+package org.jretty.dubbo.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.jretty.util.StringUtils;
+import org.jretty.util.match.ZolltyPathMatcher;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * 按路径段（以"/"分隔）组织的路由前缀树，在parseControllerInfo时一次性构建，
+ * 查找时只需沿URL的路径段向下走，复杂度为O(路径深度)，与Controller方法的数量无关。
+ * <p>
+ * 支持的路径段类型（匹配优先级从高到低）：
+ * <ol>
+ * <li>静态段：如 /order/get</li>
+ * <li>变量段：整段为{}或{name}，如 /order/get/{}，匹配一个路径段，并记录其值</li>
+ * <li>模式段：段内混合了变量或*，如 /file/{}.json，用ZolltyPathMatcher逐段匹配</li>
+ * <li>通配尾：末段为**，匹配剩余的全部路径</li>
+ * </ol>
+ * 路径变量在向下查找的过程中顺带记录，不需要再对整个URL重新匹配。
+ * <p>
+ * 另外，不含变量的url还会登记到一个按 请求方法 + 规范化url 索引的哈希表中，
+ * 查找时先查该表，命中则直接返回，不再进入前缀树。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+class RouteTrie {
+
+    private static final String ALL = "ALL";
+
+    private final Node root = new Node();
+    
+    /** 精确匹配索引：请求方法 -> (规范化url -> 匹配结果)，ALL方法已展开到每个请求方法中 */
+    private final Map<String, Map<String, RouteMatch>> exacts = new HashMap<String, Map<String, RouteMatch>>();
+
+    /**
+     * 注册一个Controller方法
+     *
+     * @param url 方法的完整url（类url + 方法url），为null时表示匹配ctrlUrl下的所有路径
+     * @param ctrlUrl 类url
+     */
+    void add(String url, String ctrlUrl, ControllerMatchMeta.MethodMatchMeta cm) {
+        Node node = root;
+        boolean exact = url != null;
+        if (url == null) {
+            // 方法上未指定url，保持原有语义：匹配类url下的所有路径
+            for (String seg : splitPath(ctrlUrl)) {
+                node = node.staticChild(seg);
+            }
+            node = node.tailChild();
+        } else {
+            List<String> segs = splitPath(url);
+            for (int i = 0; i < segs.size(); i++) {
+                String seg = segs.get(i);
+                if ("**".equals(seg) && i == segs.size() - 1) {
+                    node = node.tailChild();
+                    exact = false;
+                } else if (isVarSegment(seg)) {
+                    node = node.varChild();
+                    exact = false;
+                } else if (seg.indexOf('{') != -1 || seg.indexOf('*') != -1) {
+                    node = node.patternChild(seg);
+                    exact = false;
+                } else {
+                    node = node.staticChild(seg);
+                }
+            }
+        }
+        // 同一url、同一请求方法重复定义时，以先注册的为准
+        if (!node.handlers.containsKey(cm.methodType)) {
+            node.handlers.put(cm.methodType, cm);
+        }
+        if (exact) {
+            addExact(normalize(url), cm);
+        }
+    }
+    
+    private void addExact(String url, ControllerMatchMeta.MethodMatchMeta cm) {
+        RouteMatch rm = new RouteMatch(cm, Collections.<String>emptyList());
+        if (!ALL.equals(cm.methodType)) {
+            RouteMatch old = exactBucket(cm.methodType).get(url);
+            // 指定了请求方法的优先于ALL
+            if (old == null || ALL.equals(old.meta.methodType)) {
+                exactBucket(cm.methodType).put(url, rm);
+            }
+            return;
+        }
+        exactBucket(ALL).putIfAbsent(url, rm);
+        for (RequestMethod m : RequestMethod.values()) {
+            exactBucket(m.name()).putIfAbsent(url, rm);
+        }
+    }
+    
+    private Map<String, RouteMatch> exactBucket(String methodType) {
+        Map<String, RouteMatch> bucket = exacts.get(methodType);
+        if (bucket == null) {
+            bucket = new HashMap<String, RouteMatch>();
+            exacts.put(methodType, bucket);
+        }
+        return bucket;
+    }
+
+    /**
+     * 查找匹配的Controller方法
+     *
+     * @return 匹配结果，未找到则返回null
+     */
+    RouteMatch match(String url, String methodType) {
+        RouteMatch rm = matchExact(url, methodType);
+        return rm != null ? rm : matchTrie(url, methodType);
+    }
+
+    /**
+     * 只查精确匹配索引
+     */
+    RouteMatch matchExact(String url, String methodType) {
+        Map<String, RouteMatch> bucket = exacts.get(methodType);
+        if (bucket == null) {
+            // 非常规的请求方法，只能匹配ALL
+            bucket = exacts.get(ALL);
+        }
+        return bucket != null ? bucket.get(normalize(url)) : null;
+    }
+
+    /**
+     * 只在前缀树中查找（变量段、模式段、通配尾）
+     */
+    RouteMatch matchTrie(String url, String methodType) {
+        List<String> pathVals = new ArrayList<String>(4);
+        int start = url.startsWith("/") ? 1 : 0;
+        ControllerMatchMeta.MethodMatchMeta cm = find(root, url, start, methodType, pathVals);
+        return cm == null ? null : new RouteMatch(cm, Collections.unmodifiableList(pathVals));
+    }
+
+    private ControllerMatchMeta.MethodMatchMeta find(Node node, String url, int pos, String methodType,
+            List<String> pathVals) {
+        // 跳过多余的"/"
+        while (pos < url.length() && url.charAt(pos) == '/') {
+            pos++;
+        }
+        if (pos >= url.length()) {
+            ControllerMatchMeta.MethodMatchMeta cm = node.handler(methodType);
+            if (cm != null) {
+                return cm;
+            }
+            return node.tail != null ? node.tail.handler(methodType) : null;
+        }
+        int end = url.indexOf('/', pos);
+        if (end == -1) {
+            end = url.length();
+        }
+        String seg = url.substring(pos, end);
+
+        ControllerMatchMeta.MethodMatchMeta cm;
+        if (node.statics != null) {
+            Node child = node.statics.get(seg);
+            if (child != null && (cm = find(child, url, end, methodType, pathVals)) != null) {
+                return cm;
+            }
+        }
+        if (node.var != null) {
+            pathVals.add(seg);
+            if ((cm = find(node.var, url, end, methodType, pathVals)) != null) {
+                return cm;
+            }
+            pathVals.remove(pathVals.size() - 1);
+        }
+        if (node.patterns != null) {
+            for (Node child : node.patterns) {
+                List<String> vals = child.matcher.match(seg);
+                if (vals == null) {
+                    continue;
+                }
+                int size = pathVals.size();
+                pathVals.addAll(vals);
+                if ((cm = find(child, url, end, methodType, pathVals)) != null) {
+                    return cm;
+                }
+                pathVals.subList(size, pathVals.size()).clear();
+            }
+        }
+        if (node.tail != null) {
+            return node.tail.handler(methodType);
+        }
+        return null;
+    }
+
+    /**
+     * url规范化：以"/"开头，去掉重复的"/"和末尾的"/"。已是规范形式时直接返回原对象，不产生新字符串。
+     */
+    static String normalize(String url) {
+        int len = url.length();
+        boolean normal = len > 0 && url.charAt(0) == '/' && (len == 1 || url.charAt(len - 1) != '/')
+                && url.indexOf("//") == -1;
+        if (normal) {
+            return url;
+        }
+        StringBuilder sb = new StringBuilder(len + 1);
+        for (int i = 0; i < len; i++) {
+            char c = url.charAt(i);
+            if (c == '/' && sb.length() > 0 && sb.charAt(sb.length() - 1) == '/') {
+                continue;
+            }
+            if (sb.length() == 0 && c != '/') {
+                sb.append('/');
+            }
+            sb.append(c);
+        }
+        if (sb.length() == 0) {
+            return "/";
+        }
+        if (sb.length() > 1 && sb.charAt(sb.length() - 1) == '/') {
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.toString();
+    }
+
+    private static boolean isVarSegment(String seg) {
+        return seg.length() >= 2 && seg.charAt(0) == '{' && seg.indexOf('}') == seg.length() - 1;
+    }
+
+    private static List<String> splitPath(String path) {
+        List<String> segs = new ArrayList<String>();
+        for (String seg : path.split("/")) {
+            if (seg.length() > 0) {
+                segs.add(seg);
+            }
+        }
+        return segs;
+    }
+
+    private static class Node {
+        Map<String, Node> statics;
+        Node var;
+        List<Node> patterns;
+        Node tail;
+        String pattern;
+        ZolltyPathMatcher matcher;
+        Map<String, ControllerMatchMeta.MethodMatchMeta> handlers = new HashMap<String, ControllerMatchMeta.MethodMatchMeta>(4);
+
+        ControllerMatchMeta.MethodMatchMeta handler(String methodType) {
+            ControllerMatchMeta.MethodMatchMeta cm = handlers.get(methodType);
+            return cm != null ? cm : handlers.get(ALL);
+        }
+
+        Node staticChild(String seg) {
+            if (statics == null) {
+                statics = new HashMap<String, Node>();
+            }
+            Node child = statics.get(seg);
+            if (child == null) {
+                child = new Node();
+                statics.put(seg, child);
+            }
+            return child;
+        }
+
+        Node varChild() {
+            if (var == null) {
+                var = new Node();
+            }
+            return var;
+        }
+
+        Node patternChild(String seg) {
+            if (patterns == null) {
+                patterns = new LinkedList<Node>();
+            }
+            for (Node child : patterns) {
+                if (child.pattern.equals(seg)) {
+                    return child;
+                }
+            }
+            Node child = new Node();
+            child.pattern = seg;
+            child.matcher = new ZolltyPathMatcher(StringUtils.replaceParams(seg.replaceAll("\\{[^}]*\\}", "{}"), "*"));
+            patterns.add(child);
+            return child;
+        }
+
+        Node tailChild() {
+            if (tail == null) {
+                tail = new Node();
+            }
+            return tail;
+        }
+    }
+
+    /**
+     * 路由查找结果：匹配到的方法，以及按顺序提取出的路径变量值
+     */
+    static class RouteMatch {
+        final ControllerMatchMeta.MethodMatchMeta meta;
+        final List<String> pathVals;
+
+        RouteMatch(ControllerMatchMeta.MethodMatchMeta meta, List<String> pathVals) {
+            this.meta = meta;
+            this.pathVals = pathVals;
+        }
+    }
+
+}
@@ -5,42 +5,71 @@ import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.jretty.dubbo.dto.CompactHttpRequestDto;
 import org.jretty.dubbo.dto.HttpRequestDto;
 import org.jretty.util.Const;
 import org.springframework.http.MediaType;
 import org.springframework.util.Assert;
-import org.springframework.util.LinkedCaseInsensitiveMap;
-import org.springframework.util.StreamUtils;
 
 /**
+ * http请求。网关端由HttpServletRequest构建，再通过{@link #toDto()}转成DTO；服务端直接包装DTO。
+ * <p>
+ * toDto()不复制Map，而是把自身的Map交给DTO并冻结，之后不能再修改（setter会抛出IllegalStateException）。
  * 
  * @author zollty
  * @since 2021年4月15日
  */
 public class SimpleHttpRequest implements HttpRequest {
     private static final String CHARSET_PREFIX = "charset=";
-    private Map<String, Object> attributes = new LinkedHashMap<>();
+    private Map<String, Object> attributes;
     private String characterEncoding;
     private String contentType;
     private String method;
-    private Map<String, String> headers = new LinkedCaseInsensitiveMap<>();
+    private Map<String, String> headers;
     private String requestURI;
     private String requestedSessionId;
     private String bodyString;
-    private Map<String, String[]> parameters = new LinkedHashMap<>(16);
+    private byte[] bodyBytes;
+    private String bodyCharset;
+    private Map<String, String[]> parameters;
+    /** toDto()生成的DTO，生成后本对象被冻结 */
+    private HttpRequestDto dto;
+    private boolean frozen;
     
+    /**
+     * 转成DTO：直接采用本对象的Map（不复制），DTO和本对象都被冻结。多次调用返回同一个DTO。
+     */
     public HttpRequestDto toDto() {
-        return new HttpRequestDto(attributes, characterEncoding, contentType, method, headers, requestURI,
-                requestedSessionId, bodyString, parameters);
+        if (dto != null) {
+            return dto;
+        }
+        // 开启紧凑格式时（-Dhttp2dubbo.dto.compact=true）以紧凑二进制格式传输
+        HttpRequestDto ret = CompactHttpRequestDto.isEnabled() ? new CompactHttpRequestDto() : new HttpRequestDto();
+        ret.setAttributes(attributes);
+        ret.setCharacterEncoding(characterEncoding);
+        ret.setContentType(contentType);
+        ret.setMethod(method);
+        ret.setHeaders(headers);
+        ret.setRequestURI(requestURI);
+        ret.setRequestedSessionId(requestedSessionId);
+        ret.setBodyString(bodyBytes != null ? null : bodyString);
+        ret.setBodyBytes(bodyBytes);
+        ret.setBodyCharset(bodyCharset);
+        ret.setParameters(parameters);
+        this.dto = ret.freeze();
+        this.frozen = true;
+        return ret;
     }
     
     public SimpleHttpRequest() {
         super();
+        this.attributes = new LinkedHashMap<>();
+        this.headers = new CaseInsensitiveHeaderMap<>();
+        this.parameters = new LinkedHashMap<>(16);
     }
     
     @SuppressWarnings("unchecked")
@@ -48,6 +77,8 @@ public class SimpleHttpRequest implements HttpRequest {
         this.characterEncoding = req.getCharacterEncoding();
         this.contentType = req.getContentType();
         this.method = req.getMethod();
+        this.attributes = new LinkedHashMap<>();
+        this.headers = new CaseInsensitiveHeaderMap<>();
         
         // set this.headers
         Enumeration<String> ht = req.getHeaderNames();
@@ -73,7 +104,9 @@ public class SimpleHttpRequest implements HttpRequest {
             String enc = req.getCharacterEncoding();
             enc = (enc != null ? enc : Const.UTF_8);
             try {
-                this.bodyString = StreamUtils.copyToString(req.getInputStream(), Charset.forName(enc));
+                // 直接保留原始字节，到provider端再交给Jackson解析，避免转成String再转回字节
+                this.bodyBytes = RequestBodyTool.readBody(req);
+                this.bodyCharset = enc;
             } catch (IOException e) {
                 throw new IllegalStateException("can not get http body", e);
             }
@@ -82,7 +115,11 @@ public class SimpleHttpRequest implements HttpRequest {
         this.parameters = new LinkedHashMap<>(req.getParameterMap());
     }
     
+    /**
+     * 包装DTO，直接使用DTO中的Map（不复制）。DTO已冻结时本对象也被冻结。
+     */
     public SimpleHttpRequest(HttpRequestDto dto) {
+        this.frozen = dto.isFrozen();
         this.attributes = dto.getAttributes();
         this.characterEncoding = dto.getCharacterEncoding();
         this.contentType = dto.getContentType();
@@ -90,7 +127,9 @@ public class SimpleHttpRequest implements HttpRequest {
         this.headers = dto.getHeaders();
         this.requestURI = dto.getRequestURI();
         this.requestedSessionId = dto.getRequestedSessionId();
-        this.bodyString = dto.getBodyString();
+        this.bodyBytes = dto.getBodyBytes();
+        this.bodyCharset = dto.getBodyCharset();
+        this.bodyString = bodyBytes != null ? null : dto.getBodyString();
         this.parameters = dto.getParameters();
     }
     
@@ -101,7 +140,8 @@ public class SimpleHttpRequest implements HttpRequest {
 
     @Override
     public Enumeration<String> getAttributeNames() {
-        return Collections.enumeration(new LinkedHashSet<>(this.attributes.keySet()));
+        // 不再复制一份名称：遍历期间不要修改attribute
+        return Collections.enumeration(this.attributes.keySet());
     }
 
     @Override
@@ -168,14 +208,28 @@ public class SimpleHttpRequest implements HttpRequest {
 
     @Override
     public String getBodyString() {
+        if (bodyString == null && bodyBytes != null) {
+            bodyString = new String(bodyBytes, Charset.forName(bodyCharset != null ? bodyCharset : Const.UTF_8));
+        }
         return bodyString;
     }
 
+    @Override
+    public byte[] getBodyBytes() {
+        return bodyBytes;
+    }
+
+    @Override
+    public String getBodyCharset() {
+        return bodyCharset;
+    }
+
 
     /**
      * @param characterEncoding the characterEncoding to set
      */
     public void setCharacterEncoding(String characterEncoding) {
+        checkFrozen();
         this.characterEncoding = characterEncoding;
     }
 
@@ -183,6 +237,7 @@ public class SimpleHttpRequest implements HttpRequest {
      * @param contentType the contentType to set
      */
     public void setContentType(String contentType) {
+        checkFrozen();
         this.contentType = contentType;
         if (contentType != null) {
             try {
@@ -206,6 +261,7 @@ public class SimpleHttpRequest implements HttpRequest {
      * @param method the method to set
      */
     public void setMethod(String method) {
+        checkFrozen();
         this.method = method;
     }
 
@@ -213,6 +269,7 @@ public class SimpleHttpRequest implements HttpRequest {
      * @param requestURI the requestURI to set
      */
     public void setRequestURI(String requestURI) {
+        checkFrozen();
         this.requestURI = requestURI;
     }
 
@@ -220,6 +277,7 @@ public class SimpleHttpRequest implements HttpRequest {
      * @param requestedSessionId the requestedSessionId to set
      */
     public void setRequestedSessionId(String requestedSessionId) {
+        checkFrozen();
         this.requestedSessionId = requestedSessionId;
     }
 
@@ -227,10 +285,25 @@ public class SimpleHttpRequest implements HttpRequest {
      * @param bodyString the bodyString to set
      */
     public void setBodyString(String bodyString) {
+        checkFrozen();
         this.bodyString = bodyString;
+        this.bodyBytes = null;
+        this.bodyCharset = null;
+    }
+    
+    /**
+     * @param bodyBytes the raw body to set
+     * @param bodyCharset the charset of the body, <code>null</code> means UTF-8
+     */
+    public void setBodyBytes(byte[] bodyBytes, String bodyCharset) {
+        checkFrozen();
+        this.bodyBytes = bodyBytes;
+        this.bodyCharset = bodyCharset;
+        this.bodyString = null;
     }
     
     public void setHeader(String name, String value) {
+        checkFrozen();
         this.headers.put(name, value);
     }
 
@@ -249,6 +322,7 @@ public class SimpleHttpRequest implements HttpRequest {
      * parameter name, they will be replaced.
      */
     public void setParameter(String name, String... values) {
+        checkFrozen();
         Assert.notNull(name, "Parameter name must not be null");
         this.parameters.put(name, values);
     }
@@ -271,6 +345,7 @@ public class SimpleHttpRequest implements HttpRequest {
     
 //    @Override
     public void setAttribute(String name, Object value) {
+        checkFrozen();
 //        Assert.notNull(name, "Attribute name must not be null");
         if (value != null) {
             this.attributes.put(name, value);
@@ -282,6 +357,7 @@ public class SimpleHttpRequest implements HttpRequest {
 
 //    @Override
     public void removeAttribute(String name) {
+        checkFrozen();
 //        Assert.notNull(name, "Attribute name must not be null");
         this.attributes.remove(name);
     }
@@ -290,7 +366,14 @@ public class SimpleHttpRequest implements HttpRequest {
      * Clear all of this request's attributes.
      */
     public void clearAttributes() {
+        checkFrozen();
         this.attributes.clear();
     }
     
+    private void checkFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("request is frozen");
+        }
+    }
+    
 }
@@ -1,36 +1,39 @@
 package org.jretty.dubbo.util;
 
-import java.lang.annotation.Annotation;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.Enumeration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
+import org.jretty.dubbo.api.ResponseInvalidationListener;
 import org.jretty.dubbo.dto.HttpRequestDto;
+import org.jretty.dubbo.dto.HttpResponseDto;
+import org.jretty.dubbo.dto.HttpStreamChunk;
+import org.jretty.dubbo.dto.RouteSpec;
 import org.jretty.util.NestedRuntimeException;
 import org.jretty.util.PathUtils;
 import org.jretty.util.ReflectionUtils;
 import org.jretty.util.StringUtils;
-import org.jretty.util.match.ZolltyPathMatcher;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
-import org.springframework.web.bind.annotation.RequestAttribute;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.bind.annotation.ValueConstants;
 
 /**
  * 根据Controller注解信息查找匹配，并调用Controller方法
@@ -41,6 +44,23 @@ import org.springframework.web.bind.annotation.ValueConstants;
 public class SpringControllerInvoke {
     protected List<ControllerMatchMeta> list;
     
+    private RouteTrie routes;
+    
+    private volatile RouteCache routeCache;
+    
+    private final List<ResponseInvalidationListener> invalidationListeners =
+            new CopyOnWriteArrayList<ResponseInvalidationListener>();
+    
+    private volatile ResponseCache responseCache = new ResponseCache(10000, invalidationListeners);
+    
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    
+    private Executor asyncExecutor = ForkJoinPool.commonPool();
+    
+    private final BatchInvoker batchInvoker = new BatchInvoker();
+    
+    private final StreamRegistry streamRegistry = new StreamRegistry();
+    
     public SpringControllerInvoke(ApplicationContext applicationContext) {
         parseControllerInfo(applicationContext);
     }
@@ -50,6 +70,7 @@ public class SpringControllerInvoke {
         controllerBeans.putAll(applicationContext.getBeansWithAnnotation(Controller.class));
         
         list = new LinkedList<ControllerMatchMeta>();
+        routes = new RouteTrie();
         
         for(final Map.Entry<String, Object> en: controllerBeans.entrySet()) {
             ControllerMatchMeta ctrl = new ControllerMatchMeta();
@@ -67,6 +88,9 @@ public class SpringControllerInvoke {
             }
             ctrl.classUrl = tpath;
             ctrl.instance = en.getValue();
+            ConcurrencyLimit classLimit = en.getValue().getClass().getAnnotation(ConcurrencyLimit.class);
+            final Bulkhead classBulkhead = classLimit != null
+                    ? new Bulkhead(en.getValue().getClass().getName(), classLimit.value()) : null;
             
             ReflectionUtils.doWithMethods(en.getValue().getClass(), new ReflectionUtils.MethodCallback() {
                 
@@ -84,12 +108,31 @@ public class SpringControllerInvoke {
                     ctrl.methodMeta.add(cm);
                     cm.method = method;
                     cm.methodType = mtype;
+                    cm.invoker = MethodInvoker.create(method, ctrl.instance);
+                    cm.resolvers = ArgumentResolver.compile(method, discoverer);
+                    cm.primitiveInvoker = PrimitiveInvoker.create(method, ctrl.instance, cm.resolvers);
+                    cm.async = AsyncResults.isAsyncType(method.getReturnType());
+                    cm.resultWriter = PrivateJson.writerFor(AsyncResults.resultType(method));
                     if (tp.length > 0) {
                         cm.methodUrl = connectPaths(ctrl.classUrl, tp[0]);
-                        if (cm.methodUrl.contains("{}")) {
-                            cm.mather = new ZolltyPathMatcher(StringUtils.replaceParams(cm.methodUrl, "*"));
-                        }
                     } // else methodUrl = null
+                    cm.spec = RequestProjector.describe(cm, ctrl.classUrl);
+                    cm.route = mtype + ' ' + (cm.methodUrl != null ? cm.methodUrl : ctrl.classUrl);
+                    if (ctrl.instance instanceof ResourceVersionProvider) {
+                        cm.versionProvider = (ResourceVersionProvider) ctrl.instance;
+                    }
+                    CacheResponse cr = method.getAnnotation(CacheResponse.class);
+                    if (cr != null) {
+                        cm.cachePolicy = new ResponseCache.Policy(cm.route, cr.ttl(),
+                                requestKey(cm, cr.params(), cr.headers()));
+                    }
+                    CoalesceRequests cq = method.getAnnotation(CoalesceRequests.class);
+                    if (cq != null) {
+                        cm.coalesceKey = requestKey(cm, cq.params(), cq.headers());
+                    }
+                    ConcurrencyLimit cl = method.getAnnotation(ConcurrencyLimit.class);
+                    cm.bulkhead = cl != null ? new Bulkhead(cm.route, cl.value()) : classBulkhead;
+                    routes.add(cm.methodUrl, ctrl.classUrl, cm);
                 }
             });
         } // end for
@@ -98,30 +141,563 @@ public class SpringControllerInvoke {
     
     public Object doInvoke(HttpRequestDto dto) throws Throwable {
         final HttpRequest request = new SimpleHttpRequest(dto);
-        final String url = request.getRequestURI();
-        final String methodType = request.getMethod();
-        
+        return invokeIsolated(request, findRoute(request));
+    }
+    
+    /**
+     * 调用Controller方法，并用按返回值类型预先创建的序列化器将结果转换成JSON字符串。
+     * <p>
+     * 与doInvoke不同，Controller抛出的异常会直接抛出（而不是作为结果序列化），由调用方统一处理；
+     * Controller返回异步类型时，同步等待其结果。
+     */
+    public String doInvokeToJson(HttpRequestDto dto) throws Throwable {
+        final HttpRequest request = new SimpleHttpRequest(dto);
+        RouteTrie.RouteMatch rm = findRoute(request);
+        ResponseCache.Entry cached = cachedResponse(request, rm, null);
+        if (cached != null) {
+            return cached.json();
+        }
+        return PrivateJson.toJSONString(rm.meta.resultWriter, invokeCoalesced(request, rm));
+    }
+    
+    /**
+     * 调用Controller方法，并将结果直接序列化为UTF-8编码的JSON字节（不经过String），
+     * 用于{@link org.jretty.dubbo.api.Http2DubboService#routeBytes}，网关可以原样写到输出流。
+     * <p>
+     * 与doInvokeToJson一样，Controller抛出的异常会直接抛出。
+     */
+    public byte[] doInvokeToBytes(HttpRequestDto dto) throws Throwable {
+        final HttpRequest request = new SimpleHttpRequest(dto);
+        RouteTrie.RouteMatch rm = findRoute(request);
+        ResponseCache.Entry cached = cachedResponse(request, rm, null);
+        if (cached != null) {
+            return cached.body;
+        }
+        return PrivateJson.toJSONBytes(rm.meta.resultWriter, invokeCoalesced(request, rm));
+    }
+    
+    /**
+     * 同doInvokeToBytes，返回{@link HttpResponseDto}：路由开启了响应缓存时，带有还可以缓存的时间（maxAge）
+     * 和失效代数（epoch、generation），网关可以在本地缓存（见{@link NearCacheHttp2DubboService}）。
+     * <p>
+     * GET、HEAD请求的响应带有ETag，请求的If-None-Match匹配时返回304，不带body：
+     * 1、Controller实现了{@link ResourceVersionProvider}时，先按资源版本计算ETag，匹配则不调用Controller方法；
+     *   开启了响应缓存时，缓存条目的ETag为缓存时的版本；
+     * 2、否则按编码后的响应字节计算ETag（缓存的响应只计算一次），匹配则只省去body的传输。
+     */
+    public HttpResponseDto doInvokeToResponse(HttpRequestDto dto) throws Throwable {
+        final HttpRequest request = new SimpleHttpRequest(dto);
+        RouteTrie.RouteMatch rm = findRoute(request);
+        boolean conditional = RequestKey.isIdempotent(request.getMethod());
+        String ifNoneMatch = conditional ? request.getHeader(ETags.IF_NONE_MATCH) : null;
+        String versionTag = null;
+        if (conditional && rm.meta.versionProvider != null) {
+            Object version = rm.meta.versionProvider.getResourceVersion(rm.meta.route, request);
+            if (version != null) {
+                versionTag = ETags.ofVersion(version);
+                if (ETags.matches(ifNoneMatch, versionTag)) {
+                    return notModified(new HttpResponseDto(), versionTag);
+                }
+            }
+        }
+        ResponseCache.Entry cached = cachedResponse(request, rm, versionTag);
+        HttpResponseDto resp;
+        String etag = null;
+        if (cached == null) {
+            resp = new HttpResponseDto(PrivateJson.toJSONBytes(rm.meta.resultWriter, invokeCoalesced(request, rm)));
+            if (conditional) {
+                // 版本在调用之前取得，内容只可能比版本新，不会使客户端一直持有旧内容
+                etag = versionTag != null ? versionTag : ETags.of(resp.getBody());
+            }
+        } else {
+            resp = new HttpResponseDto(cached.body);
+            resp.setMaxAge(Math.max(0, cached.expireAt - System.currentTimeMillis()));
+            resp.setEpoch(cached.epoch);
+            resp.setGeneration(cached.generation);
+            // 缓存时的版本（或内容hash），缓存的内容可能比当前版本旧
+            etag = cached.etag();
+        }
+        return ETags.matches(ifNoneMatch, etag) ? notModified(resp, etag) : withEtag(resp, etag);
+    }
+    
+    private static HttpResponseDto notModified(HttpResponseDto resp, String etag) {
+        resp.setStatus(HttpResponseDto.NOT_MODIFIED);
+        resp.setBody(null);
+        return withEtag(resp, etag);
+    }
+    
+    private static HttpResponseDto withEtag(HttpResponseDto resp, String etag) {
+        resp.setEtag(etag);
+        return resp;
+    }
+    
+    /**
+     * 异步调用Controller方法，用于{@link org.jretty.dubbo.api.Http2DubboService#routeAsync}。
+     * <p>
+     * Controller返回CompletionStage（CompletableFuture）、DeferredResult时，在其完成时完成返回的future；
+     * 返回Callable时，交给asyncExecutor执行（见{@link #setAsyncExecutor}）；其他返回值直接完成。
+     * Controller抛出的异常（包括404）以异常完成的方式返回，异常可能被CompletionException包装。
+     */
+    public CompletableFuture<Object> doInvokeAsync(HttpRequestDto dto) {
+        try {
+            final HttpRequest request = new SimpleHttpRequest(dto);
+            return invokeAsync(request, findRoute(request));
+        } catch (Throwable e) {
+            return AsyncResults.failed(e);
+        }
+    }
+    
+    /**
+     * 异步调用Controller方法，并在结果就绪时用预先创建的序列化器转换成JSON字符串，见{@link #doInvokeAsync}
+     */
+    public CompletableFuture<String> doInvokeToJsonAsync(HttpRequestDto dto) {
+        final RouteTrie.RouteMatch rm;
+        final CompletableFuture<Object> future;
+        try {
+            final HttpRequest request = new SimpleHttpRequest(dto);
+            rm = findRoute(request);
+            future = invokeAsync(request, rm);
+        } catch (Throwable e) {
+            return AsyncResults.failed(e);
+        }
+        return future.thenApply(r -> PrivateJson.toJSONString(rm.meta.resultWriter, r));
+    }
+    
+    /**
+     * 批量调用，用于{@link org.jretty.dubbo.api.Http2DubboService#routeBatch}：
+     * 各请求在有界线程池上并发执行（同doInvokeToJson），按请求顺序返回结果。
+     * <p>
+     * 每个结果为JSON字符串，或者该请求失败的异常对象（包括404、超过批量超时时间的TimeoutException），互不影响。
+     * 
+     * @throws IllegalArgumentException 请求数超过最大批量（见{@link #setMaxBatchSize}）
+     */
+    public List<Object> doInvokeBatch(List<HttpRequestDto> dtos) {
+        return batchInvoker.invokeAll(dtos, dto -> {
+            try {
+                return doInvokeToJson(dto);
+            } catch (Throwable e) {
+                return e;
+            }
+        });
+    }
+    
+    /**
+     * 流式调用，用于{@link org.jretty.dubbo.api.Http2DubboService#routeStream}：
+     * Controller返回Iterator、Stream、Iterable（如List）时，结果按块编码为一个JSON数组，
+     * 这里只返回第一块，后续块由网关通过{@link #nextStreamChunk}逐块拉取（拉取才编码，即背压）。
+     * 其他返回值编码为一块返回。
+     * <p>
+     * 与doInvokeToJson一样，Controller抛出的异常会直接抛出。
+     */
+    public HttpStreamChunk doInvokeStream(HttpRequestDto dto) throws Throwable {
+        final HttpRequest request = new SimpleHttpRequest(dto);
+        RouteTrie.RouteMatch rm = findRoute(request);
+        Object result = invokeAndAwait(request, rm);
+        if (JsonChunkStream.isStreamable(result)) {
+            return streamRegistry.open(result);
+        }
+        return new HttpStreamChunk(null, 0, PrivateJson.toJSONBytes(rm.meta.resultWriter, result), true);
+    }
+    
+    /**
+     * 拉取流的下一块
+     * 
+     * @throws IllegalStateException 流不存在（已结束、空闲超时或者由其他服务实例打开）
+     */
+    public HttpStreamChunk nextStreamChunk(String streamId) throws IOException {
+        return streamRegistry.next(streamId);
+    }
+    
+    /**
+     * 提前结束流（如客户端已断开），释放服务端资源
+     */
+    public void closeStream(String streamId) {
+        streamRegistry.close(streamId);
+    }
+    
+    /**
+     * 路由开启了响应缓存、且为GET或HEAD请求时，从缓存中取已编码的响应，未命中则调用并缓存；否则返回null
+     * 
+     * @param etag 未命中时缓存条目的ETag（调用之前取得的版本），为null时按响应内容计算
+     */
+    private ResponseCache.Entry cachedResponse(HttpRequest request, RouteTrie.RouteMatch rm, String etag)
+            throws Throwable {
+        ResponseCache cache = this.responseCache;
+        ResponseCache.Policy policy = rm.meta.cachePolicy;
+        if (cache == null || policy == null || !RequestKey.isIdempotent(request.getMethod())) {
+            return null;
+        }
+        String key = policy.key.of(request);
+        if (key == null) {
+            return null;
+        }
+        ResponseCache.Entry e = cache.get(key);
+        if (e == null) {
+            long generation = cache.generation();
+            byte[] body = PrivateJson.toJSONBytes(rm.meta.resultWriter, invokeCoalesced(request, rm));
+            e = cache.put(key, policy.route, policy.ttlMillis, body, cache.epoch, generation, etag);
+        }
+        return e;
+    }
+    
+    /**
+     * 路由开启了请求合并、且为GET或HEAD请求时，与正在执行的相同请求共享结果；否则直接调用
+     */
+    private Object invokeCoalesced(HttpRequest request, RouteTrie.RouteMatch rm) throws Throwable {
+        RequestKey key = rm.meta.coalesceKey;
+        String k = key != null && RequestKey.isIdempotent(request.getMethod()) ? key.of(request) : null;
+        if (k == null) {
+            return invokeAndAwait(request, rm);
+        }
+        // 等待共享的结果期间同样占用线程，与执行调用的请求一样计入并发数
+        Bulkhead bulkhead = acquire(rm);
+        try {
+            return coalescer.execute(rm.meta.route, k, () -> await(request, rm));
+        } finally {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+    }
+    
+    private Object invokeAndAwait(HttpRequest request, RouteTrie.RouteMatch rm) throws Throwable {
+        // 同步等待异步结果期间同样占用线程，一并计入并发数
+        Bulkhead bulkhead = acquire(rm);
+        try {
+            return await(request, rm);
+        } finally {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+    }
+    
+    /**
+     * 调用并同步等待异步结果（不获取并发数许可）
+     */
+    private Object await(HttpRequest request, RouteTrie.RouteMatch rm) throws Throwable {
+        Object result = invoke(request, rm);
+        if (result instanceof Throwable) {
+            throw (Throwable) result;
+        }
+        if (rm.meta.async) {
+            return AsyncResults.await(result, asyncExecutor);
+        }
+        return result;
+    }
+    
+    private static Object invokeIsolated(HttpRequest request, RouteTrie.RouteMatch rm) throws Throwable {
+        Bulkhead bulkhead = acquire(rm);
+        try {
+            return invoke(request, rm);
+        } finally {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+    }
+    
+    /**
+     * 异步调用：路由限制了并发数时，许可在返回的future完成时才释放（包括在asyncExecutor上执行的Callable）
+     */
+    private CompletableFuture<Object> invokeAsync(HttpRequest request, RouteTrie.RouteMatch rm) throws Throwable {
+        final Bulkhead bulkhead = acquire(rm);
+        CompletableFuture<Object> future;
+        try {
+            future = AsyncResults.toFuture(invoke(request, rm), asyncExecutor);
+        } catch (Throwable e) {
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+            throw e;
+        }
+        if (bulkhead != null) {
+            future.whenComplete((r, e) -> bulkhead.release());
+        }
+        return future;
+    }
+    
+    /**
+     * 路由限制了并发数时获取许可，已达到上限则立即拒绝（不排队）
+     * 
+     * @return 获取了许可的Bulkhead（调用结束后释放），未限制时返回null
+     */
+    private static Bulkhead acquire(RouteTrie.RouteMatch rm) {
+        Bulkhead bulkhead = rm.meta.bulkhead;
+        if (bulkhead != null && !bulkhead.tryAcquire()) {
+            throw new NestedRuntimeException("503 route busy: " + rm.meta.route);
+        }
+        return bulkhead;
+    }
+    
+    private RouteTrie.RouteMatch findRoute(HttpRequest request) {
+        // 按路径段在前缀树中查找，url有参数时（get/{} --- get/101）顺带提取路径变量
+        RouteTrie.RouteMatch rm = matchRoute(request.getRequestURI(), request.getMethod());
+        if (rm == null) {
+            throw new NestedRuntimeException("404 url not found"); // not find the matched method
+        }
+        return rm;
+    }
+    
+    private static Object invoke(HttpRequest request, RouteTrie.RouteMatch rm) throws Throwable {
+        if (rm.meta.primitiveInvoker != null) {
+            // 参数全部为基本类型或String，直接解析为基本类型调用，不装箱
+            Object ret = invokePrimitive(rm.meta.primitiveInvoker, request, rm.pathVals);
+            if (ret != PrimitiveInvoker.FALLBACK) {
+                return ret;
+            }
+        }
+        Object[] args = getInvokeParams(rm.meta.resolvers, request, rm.pathVals);
+        return invokeMethod(rm.meta.invoker, args);
+    }
+    
+    /**
+     * 注册自定义参数类型的转换器（优先于内置转换器），用于@RequestParam、@RequestHeader、@PathVariable等参数。
+     * 转换器在解析Controller时就已确定，因此需要在创建SpringControllerInvoke之前注册。
+     */
+    public static <T> void registerConverter(Class<T> type, Function<String, ? extends T> converter) {
+        MvcConvertUtils.registerConverter(type, converter::apply);
+    }
+    
+    /**
+     * 路由清单：每个Controller方法实际读取的header、参数、attribute，以及是否需要body，
+     * 用于{@link org.jretty.dubbo.api.Http2DubboService#routeManifest}，网关据此裁剪请求（见{@link RequestProjector}）
+     */
+    public List<RouteSpec> getRouteManifest() {
+        List<RouteSpec> manifest = new ArrayList<RouteSpec>();
+        for (ControllerMatchMeta ctrl : list) {
+            for (ControllerMatchMeta.MethodMatchMeta cm : ctrl.methodMeta) {
+                manifest.add(cm.spec);
+            }
+        }
+        return manifest;
+    }
+    
+    /**
+     * 开启模板url（如 /order/get/{}）的路由缓存，缓存 (请求方法, url) 到匹配结果及路径变量值。
+     * 
+     * @param maximumSize 最大缓存条数，小于等于0则关闭缓存
+     */
+    public void setRouteCacheSize(int maximumSize) {
+        this.routeCache = maximumSize > 0 ? new RouteCache(maximumSize) : null;
+    }
+    
+    /**
+     * @return 路由缓存，未开启时返回null
+     */
+    public RouteCache getRouteCache() {
+        return routeCache;
+    }
+    
+    /**
+     * 按配置开启路由的响应缓存（优先于{@link CacheResponse}注解），缓存键由方法实际读取的参数、header、attribute计算。
+     * 
+     * @param ttlByRoute 路由标识（请求方法 + 空格 + 方法的url，如 "GET /dict/{type}"）-&gt; 缓存时间（毫秒），
+     *            小于等于0表示关闭该路由的缓存
+     * @throws IllegalArgumentException 路由不存在，或方法读取的attribute不是String、基本类型及其包装类，此时不修改任何路由的配置
+     */
+    public void setResponseCacheRoutes(Map<String, Long> ttlByRoute) {
+        Map<String, Long> rest = new HashMap<String, Long>(ttlByRoute);
+        Map<ControllerMatchMeta.MethodMatchMeta, ResponseCache.Policy> policies =
+                new HashMap<ControllerMatchMeta.MethodMatchMeta, ResponseCache.Policy>();
         for (ControllerMatchMeta ctrl : list) {
-            if (!url.startsWith(ctrl.classUrl)) {
-                continue;
+            for (ControllerMatchMeta.MethodMatchMeta cm : ctrl.methodMeta) {
+                Long ttl = rest.remove(cm.route);
+                if (ttl != null) {
+                    policies.put(cm,
+                            ttl > 0 ? new ResponseCache.Policy(cm.route, ttl, requestKey(cm, null, null)) : null);
+                }
             }
+        }
+        if (!rest.isEmpty()) {
+            throw new IllegalArgumentException("route not found: " + rest.keySet());
+        }
+        // 全部检查通过后才修改，配置有误时不会只生效一部分
+        for (Map.Entry<ControllerMatchMeta.MethodMatchMeta, ResponseCache.Policy> en : policies.entrySet()) {
+            en.getKey().cachePolicy = en.getValue();
+        }
+    }
+    
+    /**
+     * 按配置开启或关闭路由的请求合并（优先于{@link CoalesceRequests}注解），
+     * 请求是否相同由方法实际读取的参数、header、attribute判断。
+     * 
+     * @param enabledByRoute 路由标识（请求方法 + 空格 + 方法的url，如 "GET /item/detail"）-&gt; 是否开启
+     * @throws IllegalArgumentException 路由不存在，或方法读取的attribute不是String、基本类型及其包装类，此时不修改任何路由的配置
+     */
+    public void setCoalescedRoutes(Map<String, Boolean> enabledByRoute) {
+        Map<String, Boolean> rest = new HashMap<String, Boolean>(enabledByRoute);
+        Map<ControllerMatchMeta.MethodMatchMeta, RequestKey> keys =
+                new HashMap<ControllerMatchMeta.MethodMatchMeta, RequestKey>();
+        for (ControllerMatchMeta ctrl : list) {
             for (ControllerMatchMeta.MethodMatchMeta cm : ctrl.methodMeta) {
-                if (!cm.methodType.equals("ALL") && !cm.methodType.equals(methodType)) {
-                    continue;
+                Boolean enabled = rest.remove(cm.route);
+                if (enabled != null) {
+                    keys.put(cm, enabled ? requestKey(cm, null, null) : null);
                 }
-                if (cm.methodUrl == null || url.equals(cm.methodUrl)) { // url完全匹配
-                    Object[] args = getInvokeParams(cm.method, request, null);
-                    return invokeMethod(cm.method, ctrl.instance, args);
-                } else if (cm.mather != null) { // url有参数：get/{} --- get/101
-                    List<String> pathVals = cm.mather.match(url);
-                    if (pathVals != null) { // 匹配
-                        Object[] args = getInvokeParams(cm.method, request, pathVals);
-                        return invokeMethod(cm.method, ctrl.instance, args);
-                    }
+            }
+        }
+        if (!rest.isEmpty()) {
+            throw new IllegalArgumentException("route not found: " + rest.keySet());
+        }
+        // 全部检查通过后才修改，配置有误时不会只生效一部分
+        for (Map.Entry<ControllerMatchMeta.MethodMatchMeta, RequestKey> en : keys.entrySet()) {
+            en.getKey().coalesceKey = en.getValue();
+        }
+    }
+    
+    /**
+     * 按配置限制路由或Controller类的并发数（优先于{@link ConcurrencyLimit}注解），达到上限时立即以 "503 route busy" 拒绝。
+     * 
+     * @param limitByRouteOrClass 路由标识（如 "GET /report/export"）或Controller类名（全限定名，该类的方法共享一个上限）
+     *            -&gt; 最大并发数，小于等于0表示不限制；同时配置时路由优先
+     * @throws IllegalArgumentException 路由或Controller类不存在，此时不修改任何路由的配置
+     */
+    public void setBulkheadLimits(Map<String, Integer> limitByRouteOrClass) {
+        Map<String, Integer> rest = new HashMap<String, Integer>(limitByRouteOrClass);
+        Map<ControllerMatchMeta.MethodMatchMeta, Bulkhead> bulkheads =
+                new HashMap<ControllerMatchMeta.MethodMatchMeta, Bulkhead>();
+        for (ControllerMatchMeta ctrl : list) {
+            String className = ctrl.instance.getClass().getName();
+            Integer classLimit = rest.remove(className);
+            Bulkhead classBulkhead = classLimit != null && classLimit > 0 ? new Bulkhead(className, classLimit) : null;
+            for (ControllerMatchMeta.MethodMatchMeta cm : ctrl.methodMeta) {
+                Integer limit = rest.remove(cm.route);
+                if (limit != null) {
+                    bulkheads.put(cm, limit > 0 ? new Bulkhead(cm.route, limit) : null);
+                } else if (classLimit != null) {
+                    bulkheads.put(cm, classBulkhead);
+                }
+            }
+        }
+        if (!rest.isEmpty()) {
+            throw new IllegalArgumentException("route not found: " + rest.keySet());
+        }
+        // 全部检查通过后才修改，配置有误时不会只生效一部分；正在执行的调用仍归还到原来的Bulkhead
+        for (Map.Entry<ControllerMatchMeta.MethodMatchMeta, Bulkhead> en : bulkheads.entrySet()) {
+            en.getKey().bulkhead = en.getValue();
+        }
+    }
+    
+    /**
+     * @return 全部并发数限制（名称 -&gt; Bulkhead），用于查看正在执行的调用数和拒绝数
+     */
+    public Map<String, Bulkhead> getBulkheads() {
+        Map<String, Bulkhead> ret = new LinkedHashMap<String, Bulkhead>();
+        for (ControllerMatchMeta ctrl : list) {
+            for (ControllerMatchMeta.MethodMatchMeta cm : ctrl.methodMeta) {
+                Bulkhead bulkhead = cm.bulkhead;
+                if (bulkhead != null) {
+                    ret.put(bulkhead.getName(), bulkhead);
                 }
             }
         }
-        throw new NestedRuntimeException("404 url not found"); // not find the matched method
+        return ret;
+    }
+    
+    /**
+     * @return 请求合并的计数
+     */
+    public RequestCoalescer getRequestCoalescer() {
+        return coalescer;
+    }
+    
+    /**
+     * 添加响应缓存的失效监听器，响应缓存失效时（invalidateRoute、invalidate、clear）通知，
+     * 如以 cluster="broadcast" 引用的网关本地缓存（见{@link NearCacheHttp2DubboService}）
+     */
+    public void addInvalidationListener(ResponseInvalidationListener listener) {
+        invalidationListeners.add(listener);
+    }
+    
+    /**
+     * 设置响应缓存的最大条数，默认10000，小于等于0则关闭缓存
+     */
+    public void setResponseCacheSize(int maximumSize) {
+        this.responseCache = maximumSize > 0 ? new ResponseCache(maximumSize, invalidationListeners) : null;
+    }
+    
+    /**
+     * @return 响应缓存（可用于按路由、按键前缀主动失效），关闭时返回null
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+    
+    /**
+     * 设置执行Controller返回的Callable的线程池，默认为ForkJoinPool.commonPool()，
+     * Callable中有阻塞I/O时建议换成独立的线程池
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+    
+    /**
+     * 设置批量调用的线程池，默认为CPU核数2倍的有界线程池（队列满时拒绝，该请求的结果为RejectedExecutionException）
+     */
+    public void setBatchExecutor(Executor batchExecutor) {
+        batchInvoker.setExecutor(batchExecutor);
+    }
+    
+    /**
+     * 设置批量调用一次最多的请求数，默认64
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        batchInvoker.setMaxBatchSize(maxBatchSize);
+    }
+    
+    /**
+     * 设置批量调用整批的超时时间（毫秒），默认10秒
+     */
+    public void setBatchTimeout(long timeoutMillis) {
+        batchInvoker.setTimeoutMillis(timeoutMillis);
+    }
+    
+    /**
+     * 设置合并的请求等待共享结果的超时时间（毫秒），默认1秒，建议与dubbo调用的超时时间一致
+     */
+    public void setCoalesceTimeout(long timeoutMillis) {
+        coalescer.setTimeoutMillis(timeoutMillis);
+    }
+    
+    /**
+     * 设置流式响应每块的大致字节数，默认64KB
+     */
+    public void setStreamChunkSize(int chunkSize) {
+        streamRegistry.setChunkSize(chunkSize);
+    }
+    
+    /**
+     * 设置流式响应的空闲超时时间（毫秒），超时未拉取的流会被关闭，默认60秒
+     */
+    public void setStreamIdleTimeout(long idleTimeoutMillis) {
+        streamRegistry.setIdleTimeoutMillis(idleTimeoutMillis);
+    }
+    
+    /**
+     * 设置同时打开的流的最大数量，默认256
+     */
+    public void setMaxStreams(int maxStreams) {
+        streamRegistry.setMaxStreams(maxStreams);
+    }
+    
+    private RouteTrie.RouteMatch matchRoute(String url, String methodType) {
+        RouteTrie.RouteMatch rm = routes.matchExact(url, methodType);
+        if (rm != null) {
+            return rm;
+        }
+        RouteCache cache = this.routeCache;
+        if (cache == null) {
+            return routes.matchTrie(url, methodType);
+        }
+        rm = cache.get(methodType, url);
+        if (rm == null) {
+            rm = routes.matchTrie(url, methodType);
+            if (rm != null) {
+                cache.put(methodType, url, rm);
+            }
+        }
+        return rm;
     }
     
     // ~ utils -------------------------------------------
@@ -169,9 +745,9 @@ public class SpringControllerInvoke {
         return null;
     }
     
-    private static Object invokeMethod(Method method, Object target, Object... args) {
+    private static Object invokeMethod(MethodInvoker invoker, Object... args) {
         try {
-            return method.invoke(target, args);
+            return invoker.invoke(args);
         } catch (InvocationTargetException e) {
             return e.getCause(); //new NestedRuntimeException(e.getCause());
         } catch (Exception e) {
@@ -181,178 +757,45 @@ public class SpringControllerInvoke {
         }
     }
     
-    private ParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
-    /**
-     * 标准HTTP数据：
-     * 1、UrlParams（Queries）： map[string]string / map[string][]string
-     * 2、Body:
-     *  FormData（同Queries）: （application/x-www-form-urlencoded）
-     *  String: （application/json， application/xml）
-     *  file/mix （multipart/form-data）
-     *  
-     *  暂不支持数组值，只支持map[string]string
-     *  不支持file/mix
-     *  暂不支持controller泛型request参数，例如：@RequestBody Request<CouponOpenQueryFrom> request
-     */
-    private Object[] getInvokeParams(Method method, HttpRequest request, List<String> pathVals) {
-        Class<?>[] paraTypes = method.getParameterTypes();
-        Parameter[] parameters = method.getParameters();
-        Annotation[][] annotations = method.getParameterAnnotations();
-        Object[] args = new Object[parameters.length];
-        for (int i = 0, j = 0; i < parameters.length; i++) {
-            Annotation anno = getMethodParamAnnotation(annotations[i]);
-            Class<?> paraType = paraTypes[i];
-            // 5种值类型(type)：
-            // 0 Param： RequestParam 或 省略
-            // 1 Header： 从header中拿
-            // 2 Attribute：（附加信息）从服务器端拿
-            // 3 PathVariable: 从url中拿
-            // 4 RequestBody：从body中拿
-            if (anno == null || anno.annotationType().equals(RequestParam.class)) {
-                String key;
-                String defaultVal = null;
-                if (anno == null) {
-                    key = discoverer.getParameterNames(method)[i];
-                } else {
-                    RequestParam hparam = (RequestParam) anno;
-                    key = hparam.value();
-                    if (key.length() == 0) {
-                        key = hparam.name();
-                    }
-                    if (key.length() == 0) {
-                        key = discoverer.getParameterNames(method)[i];
-                    }
-                    if (!hparam.defaultValue().equals(ValueConstants.DEFAULT_NONE)) {
-                        defaultVal = hparam.defaultValue();
-                    }
-                }
-                args[i] = getParamValue(key, defaultVal, request, paraType);
-
-            } else if (anno.annotationType().equals(RequestBody.class)) {
-                args[i] = getBodyValue(request, paraType);
-            } else if (anno.annotationType().equals(PathVariable.class)) {
-                args[i] = getPathValue(pathVals, paraType, j++);
-            } else if (anno.annotationType().equals(RequestHeader.class)) {
-                String key;
-                String defaultVal = null;
-                RequestHeader hparam = (RequestHeader) anno;
-                key = hparam.value();
-                if (key.length() == 0) {
-                    key = hparam.name();
-                }
-                if (key.length() == 0) {
-                    key = discoverer.getParameterNames(method)[i];
-                }
-                if (!hparam.defaultValue().equals(ValueConstants.DEFAULT_NONE)) {
-                    defaultVal = hparam.defaultValue();
-                }
-                args[i] = getHeaderValue(key, defaultVal, request, paraType);
-            } else if (anno.annotationType().equals(RequestAttribute.class)) {
-                String key;
-                RequestAttribute hparam = (RequestAttribute) anno;
-                key = hparam.value();
-                if (key.length() == 0) {
-                    key = hparam.name();
-                }
-                if (key.length() == 0) {
-                    key = discoverer.getParameterNames(method)[i];
-                }
-                args[i] = getAttributeValue(key, request, paraType);
-            }
+    private static Object invokePrimitive(PrimitiveInvoker invoker, HttpRequest request, List<String> pathVals)
+            throws Throwable {
+        try {
+            return invoker.invoke(request, pathVals);
+        } catch (InvocationTargetException e) {
+            return e.getCause();
         }
-        return args;
     }
     
-    private Object getParamValue(String key, String defaultVal, HttpRequest request, Class<?> paraType) {
-        if (MvcConvertUtils.canConvert(paraType) != null) {
-            // 数据类型为主要类型，可以直接转换，比如int、Long等
-            String sval = request.getParameter(key);
-            if (sval != null) {
-                return MvcConvertUtils.convert(sval, paraType);
-            } else if (defaultVal != null) {
-                return MvcConvertUtils.convert(defaultVal, paraType);
-            }
-            return null;
-        } else {
-            // 数据类型为复合类型，需要调用标准setter赋值
-            
-            // 请求参数封装到javabean
-            Enumeration<String> enumeration = request.getParameterNames();
-            
-            BeanParamMeta paramMetaInfo = new BeanParamMeta(paraType,
-                    MvcConvertUtils.Ref.getSetterMethods(paraType),
-                    key);
-            Object p = paramMetaInfo.newParamInstance();
-            // 把http参数赋值给参数对象
-            while (enumeration.hasMoreElements()) {
-                String httpParamName = enumeration.nextElement();
-                String[] paramValue = request.getParameterValues(httpParamName);
-                if (paramValue.length == 1 && paramValue[0].length() < 1) {
-                    // 前端的空值("")和null值，传到后端都是""，且无法区分，没有意义，因此直接丢弃掉
-                    continue;
-                }
-                if (!httpParamName.endsWith("[]")) {
-                    paramMetaInfo.setParam(p, httpParamName, paramValue[0]);
-                } else {
-                    paramMetaInfo.setParam(p, httpParamName.substring(0, httpParamName.length() - 2),
-                            paramValue);
-                }
-            }
-            
-            return p;
-        }
-    }
+    private ParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
     
-    private Object getHeaderValue(String key, String defaultVal, HttpRequest request, Class<?> paraType) {
-        if (MvcConvertUtils.canConvert(paraType) != null) {
-            // 数据类型为主要类型，可以直接转换，比如int、Long等
-            String sval = request.getHeader(key);
-            if (sval != null) {
-                return MvcConvertUtils.convert(sval, paraType);
-            } else if (defaultVal != null) {
-                return MvcConvertUtils.convert(defaultVal, paraType);
-            }
-            return null;
+    private static Object[] getInvokeParams(ArgumentResolver[] resolvers, HttpRequest request, List<String> pathVals) {
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(request, pathVals);
         }
-        return null;
+        return args;
     }
     
-    private Object getAttributeValue(String key, HttpRequest request, Class<?> paraType) {
-        Object obj = request.getAttribute(key);
-        if (obj == null) {
-            return null;
+    /**
+     * @param params 参与计算键的参数名称，为空时使用方法实际读取的参数
+     * @param headers 参与计算键的header名称，为空时使用方法实际读取的header
+     * @throws IllegalArgumentException 方法读取的attribute不是String或基本类型（及其包装类），不能计算键
+     */
+    private static RequestKey requestKey(ControllerMatchMeta.MethodMatchMeta cm, String[] params, String[] headers) {
+        for (ArgumentResolver r : cm.resolvers) {
+            if (r.source == ArgumentResolver.Source.ATTRIBUTE && !RequestKey.isScalar(r.paraType)) {
+                throw new IllegalArgumentException("attribute " + r.key + " of " + cm.route + " is "
+                        + r.paraType.getName() + ", only String and primitive types can be used to cache or coalesce");
+            }
         }
-        if (paraType.isAssignableFrom(obj.getClass())) {
-            return obj;
+        RouteSpec spec = cm.spec;
+        if (params == null || params.length == 0) {
+            params = spec.isAllParams() ? null : spec.getParams();
         }
-        throw new IllegalArgumentException("can'not get the param '" + key + "' of type=" + paraType.getName());
-    }
-    
-    private Object getPathValue(List<String> pathVals, Class<?> paraType, int index) {
-        if (MvcConvertUtils.canConvert(paraType) != null) {
-            // 数据类型为主要类型，可以直接转换，比如int、Long等
-            String sval = pathVals.get(index);
-            return MvcConvertUtils.convert(sval, paraType);
-        }
-        return null;
-    }
-    
-    // 默认为json类型
-    private Object getBodyValue(HttpRequest request, Class<?> paraType) {
-            // 数据类型为复合类型，需要调用标准setter赋值
-        return PrivateJson.parseObject(request.getBodyString(), paraType);
-    }
-    
-    private Annotation getMethodParamAnnotation(Annotation[] annotations) {
-        for (Annotation a : annotations) {
-            if (a.annotationType().equals(RequestParam.class) 
-                    || a.annotationType().equals(RequestBody.class)
-                    || a.annotationType().equals(PathVariable.class)
-                    || a.annotationType().equals(RequestHeader.class)
-                    || a.annotationType().equals(RequestAttribute.class))
-                return a;
+        if (headers == null || headers.length == 0) {
+            headers = spec.getHeaders();
         }
-        return null;
+        return new RequestKey(params, headers, spec.getAttributes());
     }
     
     private static String connectPaths(String p1, String p2) {
@@ -0,0 +1,132 @@
+package org.jretty.dubbo.util;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jretty.dubbo.dto.HttpStreamChunk;
+
+/**
+ * 服务端进行中的流式响应。网关拉取一块才编码一块（拉取即背压），
+ * 超过空闲时间未被拉取的流会被关闭回收（在open、next、size时检查，不另开线程）；同时打开的流数量有上限。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+class StreamRegistry {
+
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60000;
+    static final int DEFAULT_MAX_STREAMS = 256;
+
+    /** 本实例的id前缀，拉取请求被路由到其他服务实例时可以明确报错 */
+    private final String prefix = UUID.randomUUID().toString().substring(0, 8) + "-";
+    final Map<String, Entry> streams = new ConcurrentHashMap<String, Entry>();
+    private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+    private volatile long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    private volatile int maxStreams = DEFAULT_MAX_STREAMS;
+
+    static class Entry {
+        final JsonChunkStream stream;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        Entry(JsonChunkStream stream) {
+            this.stream = stream;
+        }
+    }
+
+    void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    void setMaxStreams(int maxStreams) {
+        this.maxStreams = maxStreams;
+    }
+
+    /**
+     * 打开一个流并返回第一块，只有一块时不登记
+     */
+    HttpStreamChunk open(Object result) throws IOException {
+        JsonChunkStream stream = JsonChunkStream.of(result, chunkSize);
+        byte[] data = stream.next();
+        if (stream.isFinished()) {
+            return new HttpStreamChunk(null, 0, data, true);
+        }
+        expireIdle();
+        if (streams.size() >= maxStreams) {
+            stream.close();
+            throw new IllegalStateException("too many open streams, max=" + maxStreams);
+        }
+        String id = prefix + UUID.randomUUID().toString();
+        streams.put(id, new Entry(stream));
+        return new HttpStreamChunk(id, 0, data, false);
+    }
+
+    /**
+     * 拉取下一块，最后一块返回后流即被移除
+     */
+    HttpStreamChunk next(String streamId) throws IOException {
+        expireIdle();
+        Entry entry = streamId != null ? streams.get(streamId) : null;
+        if (entry == null) {
+            throw new IllegalStateException("stream not found or expired, id=" + streamId
+                    + (streamId != null && !streamId.startsWith(prefix) ? " (opened by another provider)" : ""));
+        }
+        entry.lastAccess = System.currentTimeMillis();
+        byte[] data;
+        int seq;
+        boolean last;
+        try {
+            synchronized (entry.stream) {
+                if (entry.stream.isClosed()) {
+                    // 取得entry之后被空闲超时回收（或被网关关闭），不能返回空的最后一块，否则网关输出的是截断的json
+                    throw new IllegalStateException("stream expired, id=" + streamId);
+                }
+                seq = entry.stream.getSeq();
+                data = entry.stream.next();
+                last = entry.stream.isFinished();
+            }
+        } catch (IOException | RuntimeException e) {
+            streams.remove(streamId);
+            throw e;
+        }
+        if (last) {
+            streams.remove(streamId);
+        }
+        return new HttpStreamChunk(streamId, seq, data, last);
+    }
+
+    /**
+     * 网关提前结束（如客户端断开）时关闭流
+     */
+    void close(String streamId) {
+        Entry entry = streamId != null ? streams.remove(streamId) : null;
+        if (entry != null) {
+            entry.stream.close();
+        }
+    }
+
+    int size() {
+        expireIdle();
+        return streams.size();
+    }
+
+    private void expireIdle() {
+        long expireBefore = System.currentTimeMillis() - idleTimeoutMillis;
+        for (Iterator<Map.Entry<String, Entry>> it = streams.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, Entry> en = it.next();
+            Entry entry = en.getValue();
+            // 多个线程同时检查时，只由移除成功的线程关闭
+            if (entry.lastAccess < expireBefore && streams.remove(en.getKey(), entry)) {
+                entry.stream.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * ArgumentResolver.compile生成的取值计划，以及按计划取值
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class ArgumentResolverTest {
+
+    public static class Item {
+        private String name;
+        private int count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    public static class Query {
+        private String name;
+        private int page;
+        private List<Long> ids;
+        private int[] codes;
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setPage(int page) {
+            this.page = page;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public void setCodes(int[] codes) {
+            this.codes = codes;
+        }
+    }
+
+    public static class Handlers {
+        public void path(@PathVariable long shopId, @PathVariable("itemId") String itemId) {
+        }
+
+        public void param(@RequestParam("page") int page,
+                @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        }
+
+        public void header(@RequestHeader("X-Token") String token,
+                @RequestHeader(value = "X-Page", defaultValue = "1") int page) {
+        }
+
+        public void attribute(@RequestAttribute("app_userId") Long userId) {
+        }
+
+        public void body(@RequestBody List<Item> items) {
+        }
+
+        public void mapBody(@RequestBody Map<String, List<Item>> groups) {
+        }
+
+        public void bean(Query query) {
+        }
+
+        public void servlet(HttpServletRequest request) {
+        }
+    }
+
+    private static ArgumentResolver[] compile(String name) {
+        for (Method m : Handlers.class.getMethods()) {
+            if (m.getName().equals(name)) {
+                return ArgumentResolver.compile(m, new DefaultParameterNameDiscoverer());
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Test
+    public void testCompile() {
+        ArgumentResolver.Source PATH = ArgumentResolver.Source.PATH;
+        ArgumentResolver.Source PARAM = ArgumentResolver.Source.PARAM;
+        ArgumentResolver.Source HEADER = ArgumentResolver.Source.HEADER;
+        ArgumentResolver.Source ATTRIBUTE = ArgumentResolver.Source.ATTRIBUTE;
+        ArgumentResolver.Source BODY = ArgumentResolver.Source.BODY;
+        Object ANY = new Object();
+        // 方法, 第几个参数, 来源, key, 默认值, 类型, 第几个路径变量（未注解参数的key取自参数名，不检查）
+        Object[][] table = {
+                { "path", 0, PATH, null, null, long.class, 0 },
+                { "path", 1, PATH, null, null, String.class, 1 },
+                { "param", 0, PARAM, "page", null, int.class, -1 },
+                { "param", 1, PARAM, "size", "20", Integer.class, -1 },
+                { "header", 0, HEADER, "X-Token", null, String.class, -1 },
+                { "header", 1, HEADER, "X-Page", "1", int.class, -1 },
+                { "attribute", 0, ATTRIBUTE, "app_userId", null, Long.class, -1 },
+                { "body", 0, BODY, null, null, List.class, -1 },
+                { "bean", 0, PARAM, ANY, null, Query.class, -1 },
+                { "servlet", 0, PARAM, ANY, null, HttpServletRequest.class, -1 } };
+        for (Object[] row : table) {
+            ArgumentResolver r = compile((String) row[0])[(Integer) row[1]];
+            String msg = row[0] + "#" + row[1];
+            assertEquals(msg, row[2], r.source);
+            if (row[3] != ANY) {
+                assertEquals(msg, row[3], r.key);
+            }
+            assertEquals(msg, row[4], r.defaultVal);
+            assertEquals(msg, row[5], r.paraType);
+            assertEquals(msg, row[6], r.pathIndex);
+            // 主要类型有转换器；JavaBean有绑定器；body有解析器
+            boolean bean = r.source == PARAM && (row[5] == Query.class || row[5] == HttpServletRequest.class);
+            assertEquals(msg, r.source != BODY && !bean, r.converter != null);
+            assertEquals(msg, bean, r.beanMeta != null);
+            assertEquals(msg, r.source == BODY, r.bodyReader != null);
+        }
+    }
+
+    @Test
+    public void testResolve() {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setParameter("page", "3");
+        req.setHeader("X-Token", "abc");
+        req.setAttribute("app_userId", 10086L);
+        List<String> pathVals = Arrays.asList("12", "a-1");
+
+        // 方法, 第几个参数, 值
+        Object[][] table = {
+                { "path", 0, 12L },
+                { "path", 1, "a-1" },
+                { "param", 0, 3 },
+                { "param", 1, 20 },
+                { "header", 0, "abc" },
+                { "header", 1, 1 },
+                { "attribute", 0, 10086L } };
+        for (Object[] row : table) {
+            ArgumentResolver r = compile((String) row[0])[(Integer) row[1]];
+            assertEquals(row[0] + "#" + row[1], row[2], r.resolve(req, pathVals));
+        }
+
+        // 有值时不使用默认值
+        req.setParameter("size", "50");
+        req.setHeader("X-Page", "7");
+        assertEquals(50, compile("param")[1].resolve(req, pathVals));
+        assertEquals(7, compile("header")[1].resolve(req, pathVals));
+
+        // 缺少值且无默认值
+        SimpleHttpRequest empty = new SimpleHttpRequest();
+        assertNull(compile("param")[0].resolve(empty, pathVals));
+        assertNull(compile("header")[0].resolve(empty, pathVals));
+        assertNull(compile("attribute")[0].resolve(empty, pathVals));
+
+        // attribute类型不匹配
+        empty.setAttribute("app_userId", "10086");
+        try {
+            compile("attribute")[0].resolve(empty, pathVals);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testGenericBody() {
+        String json = "[{\"name\":\"中文\",\"count\":2},{\"name\":\"b\",\"count\":3}]";
+        ArgumentResolver r = compile("body")[0];
+
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setBodyString(json);
+        List<?> items = (List<?>) r.resolve(req, null);
+        assertEquals(2, items.size());
+        // 按泛型类型解析，元素为Item而不是Map
+        assertEquals(Item.class, items.get(0).getClass());
+        assertEquals("中文", ((Item) items.get(0)).getName());
+
+        req = new SimpleHttpRequest();
+        req.setBodyBytes(json.getBytes(StandardCharsets.UTF_8), "UTF-8");
+        items = (List<?>) r.resolve(req, null);
+        assertEquals(3, ((Item) items.get(1)).getCount());
+
+        req = new SimpleHttpRequest();
+        req.setBodyString("{\"g1\":" + json + "}");
+        Map<?, ?> groups = (Map<?, ?>) compile("mapBody")[0].resolve(req, null);
+        assertEquals(Item.class, ((List<?>) groups.get("g1")).get(1).getClass());
+    }
+
+    @Test
+    public void testBeanParam() {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setParameter("name", "");
+        req.setParameter("page", "2");
+        req.setParameter("ids[]", new String[] { "1", "2" });
+        req.setParameter("codes[]", new String[] { "3", "4" });
+        req.setParameter("unknown", "x");
+        Query q = (Query) compile("bean")[0].resolve(req, null);
+        assertNotNull(q);
+        // 空值丢弃
+        assertNull(q.name);
+        assertEquals(2, q.page);
+        assertEquals(Arrays.asList(1L, 2L), q.ids);
+        assertArrayEquals(new int[] { 3, 4 }, q.codes);
+    }
+
+    @Test
+    public void testServletRequestNotInjected() {
+        // 服务端没有HttpServletRequest，该类型的参数与其他未注解的参数一样按JavaBean绑定，接口无法实例化
+        ArgumentResolver r = compile("servlet")[0];
+        try {
+            r.resolve(new SimpleHttpRequest(), null);
+            fail();
+        } catch (RuntimeException e) {
+            // expected
+        }
+    }
+
+}
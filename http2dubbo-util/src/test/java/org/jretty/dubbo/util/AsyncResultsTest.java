@@ -0,0 +1,93 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class AsyncResultsTest {
+
+    public static class OrderController {
+        public CompletableFuture<List<String>> list() {
+            return null;
+        }
+
+        public Callable<Long> count() {
+            return null;
+        }
+
+        public String name() {
+            return null;
+        }
+    }
+
+    @Test
+    public void testResultType() throws Exception {
+        assertEquals("java.util.List<java.lang.String>",
+                AsyncResults.resultType(OrderController.class.getMethod("list")).getTypeName());
+        assertEquals(Long.class, AsyncResults.resultType(OrderController.class.getMethod("count")));
+        assertEquals(String.class, AsyncResults.resultType(OrderController.class.getMethod("name")));
+        assertFalse(AsyncResults.isAsyncType(String.class));
+    }
+
+    @Test
+    public void testFuture() throws Exception {
+        CompletableFuture<Object> source = new CompletableFuture<Object>();
+        CompletableFuture<Object> future = AsyncResults.toFuture(source, Runnable::run);
+        assertFalse(future.isDone());
+        source.complete("ok");
+        assertEquals("ok", future.get());
+
+        assertEquals("plain", AsyncResults.toFuture("plain", Runnable::run).get());
+    }
+
+    @Test
+    public void testCallable() throws Throwable {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Callable<String> ok = () -> Thread.currentThread().getName();
+            assertFalse(Thread.currentThread().getName().equals(AsyncResults.await(ok, executor)));
+
+            final IllegalStateException ex = new IllegalStateException("biz error");
+            Callable<String> bad = () -> {
+                throw ex;
+            };
+            try {
+                AsyncResults.await(bad, executor);
+                fail();
+            } catch (IllegalStateException e) {
+                assertSame(ex, e);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testThrowableResult() throws Exception {
+        RuntimeException ex = new RuntimeException("controller error");
+        CompletableFuture<Object> future = AsyncResults.toFuture(ex, Runnable::run);
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(ex, AsyncResults.unwrap(e));
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class BatchInvokerTest {
+
+    @Test
+    public void testOrderAndErrors() {
+        BatchInvoker batch = new BatchInvoker();
+        List<Object> results = batch.invokeAll(Arrays.asList(30, 0, 10, -1), (Integer ms) -> {
+            if (ms < 0) {
+                return new IllegalArgumentException("bad request");
+            }
+            sleep(ms);
+            return "r" + ms;
+        });
+        assertEquals(4, results.size());
+        assertEquals("r30", results.get(0));
+        assertEquals("r0", results.get(1));
+        assertEquals("r10", results.get(2));
+        assertTrue(results.get(3) instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testTimeout() {
+        BatchInvoker batch = new BatchInvoker();
+        batch.setTimeoutMillis(100);
+        List<Object> results = batch.invokeAll(Arrays.asList(0, 2000), (Integer ms) -> {
+            sleep(ms);
+            return "r" + ms;
+        });
+        assertEquals("r0", results.get(0));
+        assertTrue(results.get(1) instanceof TimeoutException);
+    }
+
+    @Test
+    public void testTimeoutIncludesCallerRuns() {
+        BatchInvoker batch = new BatchInvoker();
+        batch.setTimeoutMillis(100);
+        // 在调用线程上执行（如CallerRunsPolicy）：执行时间同样计入超时，超时之后的请求不再执行
+        batch.setExecutor(Runnable::run);
+        long start = System.nanoTime();
+        List<Object> results = batch.invokeAll(Arrays.asList(200, 0, 0), (Integer ms) -> {
+            sleep(ms);
+            return "r" + ms;
+        });
+        assertEquals("r200", results.get(0));
+        assertTrue(results.get(1) instanceof TimeoutException);
+        assertTrue(results.get(2) instanceof TimeoutException);
+        assertTrue(System.nanoTime() - start < 1000000000L);
+    }
+
+    @Test
+    public void testMaxBatchSize() {
+        BatchInvoker batch = new BatchInvoker();
+        batch.setMaxBatchSize(2);
+        try {
+            batch.invokeAll(Arrays.asList(1, 2, 3), (Integer i) -> i);
+            fail("batch size should be limited");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jretty.util.NestedRuntimeException;
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class BeanParamMetaTest {
+
+    public static class Form {
+        String name;
+        int page;
+        Long userId;
+        BigDecimal amount;
+        LocalDate day;
+        TimeUnit unit;
+        List<Long> ids;
+        Set<Integer> tags;
+        @SuppressWarnings("rawtypes")
+        List raw;
+        int[] codes;
+        String[] names;
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setPage(int page) {
+            this.page = page;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public void setDay(LocalDate day) {
+            this.day = day;
+        }
+
+        public void setUnit(TimeUnit unit) {
+            this.unit = unit;
+        }
+
+        public void setIds(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        public void setTags(Set<Integer> tags) {
+            this.tags = tags;
+        }
+
+        @SuppressWarnings("rawtypes")
+        public void setRaw(List raw) {
+            this.raw = raw;
+        }
+
+        public void setCodes(int[] codes) {
+            this.codes = codes;
+        }
+
+        public void setNames(String[] names) {
+            this.names = names;
+        }
+
+        public void setFail(String value) {
+            throw new IllegalStateException(value);
+        }
+
+        public void setCrash(String value) {
+            throw new LinkageError(value);
+        }
+
+        public static void setIgnored(String value) {
+        }
+
+        public String setChained(String value) {
+            return value;
+        }
+    }
+
+    public static class Other {
+        public void setName(String name) {
+        }
+    }
+
+    @Test
+    public void testForClassCached() {
+        BeanParamMeta meta = BeanParamMeta.forClass(Form.class);
+        assertSame(meta, BeanParamMeta.forClass(Form.class));
+        assertTrue(meta != BeanParamMeta.forClass(Other.class));
+        assertEquals(new HashSet<String>(Arrays.asList("name", "page", "userId", "amount", "day", "unit", "ids",
+                "tags", "raw", "codes", "names", "fail", "crash")), meta.propertyNames());
+        assertEquals(Form.class, meta.newParamInstance().getClass());
+        assertTrue(meta.newParamInstance() != meta.newParamInstance());
+    }
+
+    @Test
+    public void testConverter() {
+        BeanParamMeta meta = BeanParamMeta.forClass(Form.class);
+        Form f = (Form) meta.newParamInstance();
+        meta.setParam(f, "name", "中文");
+        meta.setParam(f, "page", "3");
+        meta.setParam(f, "userId", "10086");
+        meta.setParam(f, "amount", "12.50");
+        meta.setParam(f, "day", "2026-10-18");
+        meta.setParam(f, "unit", "SECONDS");
+        meta.setParam(f, "unknown", "x");
+        meta.setParam(f, "ignored", "x");
+        meta.setParam(f, "chained", "x");
+        assertEquals("中文", f.name);
+        assertEquals(3, f.page);
+        assertEquals(Long.valueOf(10086L), f.userId);
+        assertEquals(new BigDecimal("12.50"), f.amount);
+        assertEquals(LocalDate.of(2026, 10, 18), f.day);
+        assertEquals(TimeUnit.SECONDS, f.unit);
+
+        try {
+            meta.setParam(f, "page", "x");
+            fail();
+        } catch (NestedRuntimeException e) {
+            assertEquals(NumberFormatException.class, e.getCause().getClass());
+        }
+        try {
+            meta.setParam(f, "unit", "WEEKS");
+            fail();
+        } catch (NestedRuntimeException e) {
+            assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+        }
+        // setter抛出的异常
+        try {
+            meta.setParam(f, "fail", "x");
+            fail();
+        } catch (NestedRuntimeException e) {
+            assertEquals(IllegalStateException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void testErrorNotWrapped() {
+        BeanParamMeta meta = BeanParamMeta.forClass(Form.class);
+        Form f = (Form) meta.newParamInstance();
+        try {
+            meta.setParam(f, "crash", "x");
+            fail();
+        } catch (LinkageError e) {
+            assertEquals("x", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCollectionAndArray() {
+        BeanParamMeta meta = BeanParamMeta.forClass(Form.class);
+        Form f = (Form) meta.newParamInstance();
+        meta.setParam(f, "ids", new String[] { "1", "2" });
+        meta.setParam(f, "tags", new String[] { "3", "3", "4" });
+        meta.setParam(f, "raw", new String[] { "5", "6L", "x" });
+        meta.setParam(f, "codes", new String[] { "7", "8" });
+        meta.setParam(f, "names", new String[] { "a", "b" });
+        // 不是数组或集合的属性不接受数组值
+        meta.setParam(f, "name", new String[] { "c" });
+        assertEquals(Arrays.asList(1L, 2L), f.ids);
+        assertEquals(new HashSet<Integer>(Arrays.asList(3, 4)), f.tags);
+        // 未声明泛型，按字符串内容推断类型
+        assertEquals(Arrays.asList(5, 6L, "x"), f.raw);
+        assertArrayEquals(new int[] { 7, 8 }, f.codes);
+        assertArrayEquals(new String[] { "a", "b" }, f.names);
+        assertNull(f.name);
+
+        try {
+            meta.setParam(f, "codes", new String[] { "9", "x" });
+            fail();
+        } catch (NestedRuntimeException e) {
+            assertNotNull(e.getCause());
+        }
+        try {
+            meta.setParam(f, "ids", new String[] { "x" });
+            fail();
+        } catch (NestedRuntimeException e) {
+            assertEquals(NumberFormatException.class, e.getCause().getClass());
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class BulkheadTest {
+
+    @Test
+    public void testAcquireAndReject() {
+        Bulkhead bulkhead = new Bulkhead("GET /report/export", 2);
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(2, bulkhead.getInUse());
+        assertEquals(1, bulkhead.getRejectedCount());
+
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+        bulkhead.release();
+        bulkhead.release();
+        assertEquals(0, bulkhead.getInUse());
+        assertEquals(1, bulkhead.getRejectedCount());
+    }
+
+    @Test
+    public void testInvalidLimit() {
+        try {
+            new Bulkhead("GET /report/export", 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testConcurrentLimit() throws InterruptedException {
+        final Bulkhead bulkhead = new Bulkhead("GET /report/export", 3);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger accepted = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int n = 0; n < 10000; n++) {
+                    if (bulkhead.tryAcquire()) {
+                        accepted.incrementAndGet();
+                        int r = running.incrementAndGet();
+                        maxRunning.accumulateAndGet(r, Math::max);
+                        running.decrementAndGet();
+                        bulkhead.release();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertTrue(maxRunning.get() <= 3);
+        assertEquals(0, bulkhead.getInUse());
+        assertEquals(threads.length * 10000L, accepted.get() + bulkhead.getRejectedCount());
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class CaseInsensitiveHeaderMapTest {
+
+    @Test
+    public void testGetAndPut() {
+        CaseInsensitiveHeaderMap<String> map = new CaseInsensitiveHeaderMap<String>(2);
+        map.put("Content-Type", "application/json");
+        map.put("X-Token", "t-001");
+        map.put("accept", "*/*");
+
+        assertEquals("application/json", map.get("content-type"));
+        assertEquals("t-001", map.get("X-TOKEN"));
+        assertTrue(map.containsKey("ACCEPT"));
+        assertFalse(map.containsKey("accept-encoding"));
+        assertNull(map.get(null));
+
+        // 不同大小写的相同键：替换值和键，位置不变
+        assertEquals("t-001", map.put("x-token", "t-002"));
+        assertEquals(3, map.size());
+        assertEquals(Arrays.asList("Content-Type", "x-token", "accept"), new ArrayList<String>(map.keySet()));
+        assertEquals("t-002", map.get("X-Token"));
+    }
+
+    @Test
+    public void testGrowAndRemove() {
+        CaseInsensitiveHeaderMap<Integer> map = new CaseInsensitiveHeaderMap<Integer>();
+        for (int i = 0; i < 100; i++) {
+            map.put("Header-" + i, i);
+        }
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i), map.get("header-" + i));
+        }
+
+        assertEquals(Integer.valueOf(10), map.remove("HEADER-10"));
+        assertNull(map.get("Header-10"));
+        assertEquals(Integer.valueOf(11), map.get("header-11"));
+        assertEquals(99, map.size());
+
+        Iterator<Map.Entry<String, Integer>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(50, map.size());
+        assertEquals("Header-1", map.keySet().iterator().next());
+        assertEquals(Integer.valueOf(99), map.get("HEADER-99"));
+        assertNull(map.get("Header-98"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("Header-1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSerialize() throws Exception {
+        CaseInsensitiveHeaderMap<String> map = new CaseInsensitiveHeaderMap<String>();
+        map.put("Host", "example.com");
+        map.put("Cookie", "a=1");
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bos);
+        out.writeObject(map);
+        out.close();
+        CaseInsensitiveHeaderMap<String> copy = (CaseInsensitiveHeaderMap<String>) new ObjectInputStream(
+                new ByteArrayInputStream(bos.toByteArray())).readObject();
+
+        assertEquals(map, copy);
+        assertEquals("a=1", copy.get("cookie"));
+        assertEquals(Arrays.asList("Host", "Cookie"), new ArrayList<String>(copy.keySet()));
+
+        CaseInsensitiveHeaderMap<String> clone = map.clone();
+        clone.put("HOST", "other.com");
+        assertEquals("example.com", map.get("host"));
+        assertEquals("other.com", clone.get("host"));
+    }
+
+}
@@ -0,0 +1,260 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.jretty.dubbo.dto.HttpRequestDto;
+import org.jretty.util.NestedRuntimeException;
+import org.junit.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 通过SpringControllerInvoke调用时的并发数限制（@ConcurrencyLimit、setBulkheadLimits）
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class ConcurrencyLimitTest {
+
+    /** 阻塞的Controller方法：进入时释放一个entered，等待gate打开 */
+    static class Blocking {
+        final Semaphore entered = new Semaphore(0);
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        String block(String ret) throws InterruptedException {
+            entered.release();
+            gate.await();
+            return ret;
+        }
+    }
+
+    @RestController
+    @RequestMapping("/report")
+    public static class ReportController extends Blocking {
+        @GetMapping("/export")
+        @ConcurrencyLimit(1)
+        public String export() throws InterruptedException {
+            return block("export");
+        }
+
+        @GetMapping("/async")
+        @ConcurrencyLimit(1)
+        public Callable<String> async() {
+            return () -> block("async");
+        }
+
+        @GetMapping("/hot")
+        @ConcurrencyLimit(2)
+        @CoalesceRequests
+        public String hot() throws InterruptedException {
+            return block("hot");
+        }
+    }
+
+    @RestController
+    @RequestMapping("/shared")
+    @ConcurrencyLimit(1)
+    public static class SharedController extends Blocking {
+        @GetMapping("/a")
+        public String a() throws InterruptedException {
+            return block("a");
+        }
+
+        @GetMapping("/b")
+        public String b() {
+            return "b";
+        }
+    }
+
+    private StaticApplicationContext ctx;
+
+    private SpringControllerInvoke invoker() {
+        ctx = new StaticApplicationContext();
+        ctx.registerSingleton("reportController", ReportController.class);
+        ctx.registerSingleton("sharedController", SharedController.class);
+        ctx.refresh();
+        return new SpringControllerInvoke(ctx);
+    }
+
+    private static HttpRequestDto get(String url) {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod("GET");
+        req.setRequestURI(url);
+        return req.toDto();
+    }
+
+    /** 在新线程中调用，等到进入Controller方法再返回 */
+    private static Thread invokeBlocked(final SpringControllerInvoke invoker, final String url, Blocking ctrl)
+            throws InterruptedException {
+        Thread t = new Thread(() -> {
+            try {
+                invoker.doInvokeToJson(get(url));
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        t.start();
+        assertTrue(ctrl.entered.tryAcquire(5, TimeUnit.SECONDS));
+        return t;
+    }
+
+    private static void assertBusy(SpringControllerInvoke invoker, String url) throws Throwable {
+        try {
+            invoker.doInvokeToJson(get(url));
+            fail("route should be busy");
+        } catch (NestedRuntimeException e) {
+            assertTrue(e.getMessage().startsWith("503 route busy"));
+        }
+    }
+
+    @Test
+    public void testRouteLimit() throws Throwable {
+        SpringControllerInvoke invoker = invoker();
+        ReportController ctrl = (ReportController) ctx.getBean("reportController");
+        Thread t = invokeBlocked(invoker, "/report/export", ctrl);
+
+        assertBusy(invoker, "/report/export");
+        try {
+            invoker.doInvoke(get("/report/export"));
+            fail("route should be busy");
+        } catch (NestedRuntimeException e) {
+            assertTrue(e.getMessage().startsWith("503 route busy"));
+        }
+        Bulkhead bulkhead = invoker.getBulkheads().get("GET /report/export");
+        assertEquals(1, bulkhead.getInUse());
+        assertEquals(2, bulkhead.getRejectedCount());
+
+        ctrl.gate.countDown();
+        t.join();
+        assertEquals(0, bulkhead.getInUse());
+        assertEquals("\"export\"", invoker.doInvokeToJson(get("/report/export")));
+    }
+
+    @Test
+    public void testClassLimitShared() throws Throwable {
+        SpringControllerInvoke invoker = invoker();
+        SharedController ctrl = (SharedController) ctx.getBean("sharedController");
+        Thread t = invokeBlocked(invoker, "/shared/a", ctrl);
+
+        // 同一个Controller类的方法共享上限
+        assertBusy(invoker, "/shared/b");
+        assertEquals(1, invoker.getBulkheads().get(SharedController.class.getName()).getRejectedCount());
+
+        ctrl.gate.countDown();
+        t.join();
+        assertEquals("\"b\"", invoker.doInvokeToJson(get("/shared/b")));
+    }
+
+    @Test
+    public void testPropertyOverride() throws Throwable {
+        SpringControllerInvoke invoker = invoker();
+        ReportController ctrl = (ReportController) ctx.getBean("reportController");
+        // 配置优先于注解：路由上限改为2，Controller类不再限制
+        invoker.setBulkheadLimits(Collections.singletonMap("GET /report/export", 2));
+        invoker.setBulkheadLimits(Collections.singletonMap(SharedController.class.getName(), 0));
+        assertFalse(invoker.getBulkheads().containsKey(SharedController.class.getName()));
+
+        Thread t1 = invokeBlocked(invoker, "/report/export", ctrl);
+        Thread t2 = invokeBlocked(invoker, "/report/export", ctrl);
+        assertBusy(invoker, "/report/export");
+        assertEquals(2, invoker.getBulkheads().get("GET /report/export").getInUse());
+
+        ctrl.gate.countDown();
+        t1.join();
+        t2.join();
+
+        // 有不存在的路由时整体拒绝，其他路由和Controller类的配置不变
+        Map<String, Integer> limits = new LinkedHashMap<String, Integer>();
+        limits.put("GET /report/export", 5);
+        limits.put(SharedController.class.getName(), 3);
+        limits.put("GET /report/none", 1);
+        try {
+            invoker.setBulkheadLimits(limits);
+            fail("route not found");
+        } catch (IllegalArgumentException e) {
+            assertEquals("route not found: [GET /report/none]", e.getMessage());
+        }
+        assertEquals(2, invoker.getBulkheads().get("GET /report/export").getMaxConcurrent());
+        assertFalse(invoker.getBulkheads().containsKey(SharedController.class.getName()));
+    }
+
+    @Test
+    public void testCoalescedHoldsPermit() throws Throwable {
+        final SpringControllerInvoke invoker = invoker();
+        ReportController ctrl = (ReportController) ctx.getBean("reportController");
+        Thread leader = invokeBlocked(invoker, "/report/hot", ctrl);
+        final CompletableFuture<String> follower = new CompletableFuture<String>();
+        new Thread(() -> {
+            try {
+                follower.complete(invoker.doInvokeToJson(get("/report/hot")));
+            } catch (Throwable e) {
+                follower.completeExceptionally(e);
+            }
+        }).start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (invoker.getRequestCoalescer().getCoalescedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+
+        // 等待共享结果的请求同样占用许可
+        Bulkhead bulkhead = invoker.getBulkheads().get("GET /report/hot");
+        assertEquals(2, bulkhead.getInUse());
+        assertBusy(invoker, "/report/hot");
+
+        ctrl.gate.countDown();
+        leader.join();
+        assertEquals("\"hot\"", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, invoker.getRequestCoalescer().getInvocationCount());
+        assertEquals(0, bulkhead.getInUse());
+    }
+
+    @Test
+    public void testAsyncHoldsPermit() throws Throwable {
+        SpringControllerInvoke invoker = invoker();
+        ReportController ctrl = (ReportController) ctx.getBean("reportController");
+        ExecutorService executor = Executors.newCachedThreadPool();
+        invoker.setAsyncExecutor(executor);
+        try {
+            // Callable在asyncExecutor上执行期间仍占用许可
+            CompletableFuture<String> first = invoker.doInvokeToJsonAsync(get("/report/async"));
+            assertTrue(ctrl.entered.tryAcquire(5, TimeUnit.SECONDS));
+            CompletableFuture<String> second = invoker.doInvokeToJsonAsync(get("/report/async"));
+            assertTrue(second.isCompletedExceptionally());
+            try {
+                second.get();
+                fail("route should be busy");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause().getMessage().startsWith("503 route busy"));
+            }
+
+            ctrl.gate.countDown();
+            assertEquals("\"async\"", first.get(5, TimeUnit.SECONDS));
+            Bulkhead bulkhead = invoker.getBulkheads().get("GET /report/async");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (bulkhead.getInUse() != 0 && System.currentTimeMillis() < deadline) {
+                Thread.yield();
+            }
+            assertEquals(0, bulkhead.getInUse());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jretty.dubbo.dto.HttpResponseDto;
+import org.junit.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * doInvokeToResponse的条件请求（If-None-Match / 304）
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class ConditionalGetTest {
+
+    @RestController
+    @RequestMapping("/item")
+    public static class ItemController implements ResourceVersionProvider {
+        final AtomicInteger detailCalls = new AtomicInteger();
+        final AtomicInteger plainCalls = new AtomicInteger();
+        final AtomicInteger dictCalls = new AtomicInteger();
+        volatile long version = 1;
+
+        @GetMapping("/detail")
+        public List<String> detail() {
+            detailCalls.incrementAndGet();
+            return Arrays.asList("detail", "v" + version);
+        }
+
+        @GetMapping("/plain")
+        public List<String> plain() {
+            plainCalls.incrementAndGet();
+            return Arrays.asList("plain");
+        }
+
+        @GetMapping("/dict")
+        @CacheResponse(ttl = 60000)
+        public List<String> dict() {
+            dictCalls.incrementAndGet();
+            return Arrays.asList("dict", "v" + version);
+        }
+
+        @Override
+        public Object getResourceVersion(String route, HttpRequest request) {
+            return route.equals("GET /item/plain") ? null : version;
+        }
+    }
+
+    private ItemController controller;
+
+    private SpringControllerInvoke invoker() {
+        StaticApplicationContext ctx = new StaticApplicationContext();
+        ctx.registerSingleton("itemController", ItemController.class);
+        ctx.refresh();
+        controller = (ItemController) ctx.getBean("itemController");
+        return new SpringControllerInvoke(ctx);
+    }
+
+    private static HttpResponseDto get(SpringControllerInvoke invoker, String url, String ifNoneMatch)
+            throws Throwable {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod("GET");
+        req.setRequestURI(url);
+        if (ifNoneMatch != null) {
+            req.setHeader("If-None-Match", ifNoneMatch);
+        }
+        return invoker.doInvokeToResponse(req.toDto());
+    }
+
+    private static String body(HttpResponseDto resp) {
+        return new String(resp.getBody(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testVersionTagSkipsInvocation() throws Throwable {
+        SpringControllerInvoke invoker = invoker();
+        HttpResponseDto resp = get(invoker, "/item/detail", null);
+        assertEquals(200, resp.getStatus());
+        assertEquals("[\"detail\",\"v1\"]", body(resp));
+        String etag = resp.getEtag();
+        assertEquals(ETags.ofVersion(1L), etag);
+
+        // 版本未变：304，不调用Controller方法
+        resp = get(invoker, "/item/detail", etag);
+        assertEquals(HttpResponseDto.NOT_MODIFIED, resp.getStatus());
+        assertNull(resp.getBody());
+        assertEquals(etag, resp.getEtag());
+        assertEquals(1, controller.detailCalls.get());
+
+        // 版本变化：完整响应
+        controller.version = 2;
+        resp = get(invoker, "/item/detail", etag);
+        assertEquals(200, resp.getStatus());
+        assertEquals("[\"detail\",\"v2\"]", body(resp));
+        assertEquals(ETags.ofVersion(2L), resp.getEtag());
+        assertEquals(2, controller.detailCalls.get());
+    }
+
+    @Test
+    public void testContentTag() throws Throwable {
+        SpringControllerInvoke invoker = invoker();
+        HttpResponseDto resp = get(invoker, "/item/plain", null);
+        String etag = resp.getEtag();
+        assertEquals(ETags.of(resp.getBody()), etag);
+
+        // 没有版本时按内容计算：仍然调用，只省去body
+        resp = get(invoker, "/item/plain", "W/\"x\", " + etag);
+        assertEquals(HttpResponseDto.NOT_MODIFIED, resp.getStatus());
+        assertNull(resp.getBody());
+        assertEquals(2, controller.plainCalls.get());
+
+        resp = get(invoker, "/item/plain", "\"x\"");
+        assertEquals(200, resp.getStatus());
+        assertEquals("[\"plain\"]", body(resp));
+        assertEquals(etag, resp.getEtag());
+    }
+
+    @Test
+    public void testCachedRouteUsesVersionTag() throws Throwable {
+        SpringControllerInvoke invoker = invoker();
+        HttpResponseDto resp = get(invoker, "/item/dict", null);
+        assertEquals(ETags.ofVersion(1L), resp.getEtag());
+        String etag = resp.getEtag();
+
+        resp = get(invoker, "/item/dict", etag);
+        assertEquals(HttpResponseDto.NOT_MODIFIED, resp.getStatus());
+        assertNull(resp.getBody());
+
+        // 命中缓存：ETag为缓存时的版本
+        resp = get(invoker, "/item/dict", "\"x\"");
+        assertEquals(200, resp.getStatus());
+        assertNotNull(resp.getBody());
+        assertEquals(etag, resp.getEtag());
+        assertEquals(1, controller.dictCalls.get());
+    }
+
+}
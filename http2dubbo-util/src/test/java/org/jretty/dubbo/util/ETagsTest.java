@@ -0,0 +1,50 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class ETagsTest {
+
+    @Test
+    public void testXxHash64() {
+        // 参考值来自xxHash的C实现（seed为0）
+        assertEquals(0xef46db3751d8e999L, ETags.xxHash64(new byte[0], 0, 0));
+        byte[] abc = "abc".getBytes(StandardCharsets.UTF_8);
+        assertEquals(0x44bc2cf5ad770999L, ETags.xxHash64(abc, 0, abc.length));
+        byte[] b = new byte[100];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = (byte) i;
+        }
+        assertEquals(0x6ac1e58032166597L, ETags.xxHash64(b, 0, b.length));
+        byte[] json = "{\"id\":42,\"name\":\"商品\"}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(0x1d9b53256eaaf681L, ETags.xxHash64(json, 0, json.length));
+        assertEquals("\"1d9b53256eaaf681\"", ETags.of(json));
+    }
+
+    @Test
+    public void testMatches() {
+        String etag = ETags.of("[1,2]".getBytes(StandardCharsets.UTF_8));
+        assertTrue(ETags.matches(etag, etag));
+        assertTrue(ETags.matches("\"x\", W/" + etag, etag));
+        assertTrue(ETags.matches("*", etag));
+        assertFalse(ETags.matches(null, etag));
+        assertFalse(ETags.matches("\"x\"", etag));
+        assertFalse(ETags.matches(etag, null));
+
+        String v1 = ETags.ofVersion(1L);
+        assertTrue(v1.startsWith("\"v"));
+        assertEquals(v1, ETags.ofVersion("1"));
+        assertNotEquals(v1, ETags.ofVersion(2L));
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jretty.apibase.Request;
+import org.jretty.apibase.Result;
+import org.jretty.dubbo.api.Http2DubboService;
+import org.jretty.dubbo.dto.HttpRequestDto;
+import org.jretty.dubbo.dto.HttpResponseDto;
+import org.jretty.dubbo.dto.HttpStreamChunk;
+import org.jretty.dubbo.dto.RouteSpec;
+import org.junit.Test;
+
+/**
+ * 只实现了route的旧版本服务端：其他方法使用默认实现，网关仍然可以调用
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class Http2DubboServiceDefaultsTest {
+
+    static class RouteOnlyService implements Http2DubboService {
+        @Override
+        public Result<String> route(Request<HttpRequestDto> request) {
+            Result<String> result = Result.create("{\"uri\":\"" + request.getData().getRequestURI() + "\"}");
+            result.setCode(7);
+            result.setMsg("ok");
+            return result;
+        }
+    }
+
+    private static Request<HttpRequestDto> request(String url) {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod("GET");
+        req.setRequestURI(url);
+        return new Request<HttpRequestDto>(req.toDto());
+    }
+
+    @Test
+    public void testRouteBytes() {
+        Result<HttpResponseDto> result = new RouteOnlyService().routeBytes(request("/item/中文"));
+        assertEquals("{\"uri\":\"/item/中文\"}", new String(result.getData().getBody(), StandardCharsets.UTF_8));
+        assertEquals(200, result.getData().getStatus());
+        assertEquals(7, result.getCode());
+        assertEquals("ok", result.getMsg());
+    }
+
+    @Test
+    public void testRouteBatch() {
+        List<HttpRequestDto> dtos = Arrays.asList(request("/a").getData(), request("/b").getData(),
+                request("/c").getData());
+        List<Result<String>> results = new RouteOnlyService().routeBatch(new Request<List<HttpRequestDto>>(dtos))
+                .getData();
+        assertEquals(3, results.size());
+        assertEquals("{\"uri\":\"/a\"}", results.get(0).getData());
+        assertEquals("{\"uri\":\"/b\"}", results.get(1).getData());
+        assertEquals("{\"uri\":\"/c\"}", results.get(2).getData());
+    }
+
+    @Test
+    public void testRouteStream() {
+        RouteOnlyService service = new RouteOnlyService();
+        Result<HttpStreamChunk> result = service.routeStream(request("/list"));
+        HttpStreamChunk chunk = result.getData();
+        assertTrue(chunk.isLast());
+        assertEquals(0, chunk.getSeq());
+        assertEquals("{\"uri\":\"/list\"}", new String(chunk.getData(), StandardCharsets.UTF_8));
+        assertEquals(7, result.getCode());
+        // 没有需要释放的流
+        service.closeStream(new Request<String>("s1"));
+    }
+
+    @Test
+    public void testRouteManifest() {
+        List<RouteSpec> manifest = new RouteOnlyService().routeManifest().getData();
+        assertTrue(manifest.isEmpty());
+        // 空清单时网关原样转发请求
+        HttpRequestDto dto = request("/item/1").getData();
+        assertSame(dto, new RequestProjector(manifest).project(dto));
+    }
+
+}
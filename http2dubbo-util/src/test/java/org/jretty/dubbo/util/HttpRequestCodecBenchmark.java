@@ -0,0 +1,82 @@
+package org.jretty.dubbo.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.jretty.dubbo.dto.CompactHttpRequestDto;
+import org.jretty.dubbo.dto.HttpRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 小GET请求的HttpRequestDto传输对比（Java序列化）：
+ * plain —— 默认的Serializable（各个Map的内部结构和类型描述都要传输）
+ * compact —— CompactHttpRequestDto（writeReplace为紧凑二进制格式）
+ * <p>
+ * 运行：mvn test-compile 后执行本类的main方法，序列化后的字节数在开始时打印。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpRequestCodecBenchmark {
+
+    private HttpRequestDto plain;
+    private CompactHttpRequestDto compact;
+    private byte[] plainBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        plain = HttpRequestCodecTest.sampleRequest().toDto();
+        compact = new CompactHttpRequestDto(plain);
+        plainBytes = HttpRequestCodecTest.serialize(plain);
+        compactBytes = HttpRequestCodecTest.serialize(compact);
+        System.out.println("serialized size: plain=" + plainBytes.length + " bytes, compact=" + compactBytes.length
+                + " bytes");
+    }
+
+    @Benchmark
+    public byte[] plainWrite() throws Exception {
+        return HttpRequestCodecTest.serialize(plain);
+    }
+
+    @Benchmark
+    public byte[] compactWrite() throws Exception {
+        return HttpRequestCodecTest.serialize(compact);
+    }
+
+    @Benchmark
+    public Object plainRead() throws Exception {
+        return new ObjectInputStream(new ByteArrayInputStream(plainBytes)).readObject();
+    }
+
+    @Benchmark
+    public Object compactRead() throws Exception {
+        return new ObjectInputStream(new ByteArrayInputStream(compactBytes)).readObject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(HttpRequestCodecBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+
+}
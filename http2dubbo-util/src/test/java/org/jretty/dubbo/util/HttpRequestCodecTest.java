@@ -0,0 +1,185 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.jretty.dubbo.dto.CompactHttpRequestDto;
+import org.jretty.dubbo.dto.HttpRequestDto;
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class HttpRequestCodecTest {
+
+    static SimpleHttpRequest sampleRequest() {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod("GET");
+        req.setRequestURI("/order/get/1234567");
+        req.setCharacterEncoding("UTF-8");
+        req.setHeader("Accept", "application/json");
+        req.setHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64)");
+        req.setHeader("X-Request-Id", "8d3c0f5e-2f7a-4c1b-9d1e-6a0b7c2e4f11");
+        req.setParameter("page", "1");
+        req.setParameter("limit", "20");
+        req.setParameter("ids[]", new String[] { "1", "2", "3" });
+        req.setAttribute("app_userId", 10086L);
+        return req;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        SimpleHttpRequest req = sampleRequest();
+        req.setAttribute("app_vip", Boolean.TRUE);
+        req.setBodyBytes("{\"name\":\"中文\"}".getBytes(StandardCharsets.UTF_8), "UTF-8");
+        HttpRequestDto src = req.toDto();
+
+        HttpRequestDto dto = HttpRequestCodec.decode(HttpRequestCodec.encode(src));
+        assertEquals("GET", dto.getMethod());
+        assertEquals("/order/get/1234567", dto.getRequestURI());
+        assertEquals("UTF-8", dto.getCharacterEncoding());
+        assertNull(dto.getContentType());
+        assertEquals("application/json", dto.getHeaders().get("accept"));
+        assertEquals(src.getHeaders().size(), dto.getHeaders().size());
+        assertArrayEquals(new String[] { "1", "2", "3" }, dto.getParameters().get("ids[]"));
+        assertEquals("20", dto.getParameters().get("limit")[0]);
+        assertEquals(10086L, dto.getAttributes().get("app_userId"));
+        assertEquals(Boolean.TRUE, dto.getAttributes().get("app_vip"));
+        assertArrayEquals(src.getBodyBytes(), dto.getBodyBytes());
+        assertEquals("{\"name\":\"中文\"}", dto.getBodyString());
+    }
+
+    @Test
+    public void testUnsupportedAttribute() {
+        SimpleHttpRequest req = sampleRequest();
+        req.setAttribute("app_amount", new BigDecimal("12.50"));
+        try {
+            HttpRequestCodec.encode(req.toDto());
+            fail();
+        } catch (IllegalArgumentException e) {
+            // 不使用Java序列化
+        }
+    }
+
+    @Test
+    public void testJavaSerialization() throws Exception {
+        HttpRequestDto plain = sampleRequest().toDto();
+        CompactHttpRequestDto compact = new CompactHttpRequestDto(plain);
+        byte[] plainBytes = serialize(plain);
+        byte[] compactBytes = serialize(compact);
+        assertTrue(compactBytes.length * 2 < plainBytes.length);
+
+        Object obj = new ObjectInputStream(new ByteArrayInputStream(compactBytes)).readObject();
+        assertEquals(HttpRequestDto.class, obj.getClass());
+        HttpRequestDto dto = (HttpRequestDto) obj;
+        assertEquals(plain.getRequestURI(), dto.getRequestURI());
+        assertEquals(plain.getHeaders().get("X-Request-Id"), dto.getHeaders().get("x-request-id"));
+    }
+
+    @Test
+    public void testHeaderTable() {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setHeader("Accept", "application/json");
+        req.setHeader("Accept-Encoding", "gzip, deflate, br");
+        req.setHeader("Connection", "keep-alive");
+        req.setHeader("User-Agent", "curl/7.68.0");
+        req.setHeader("X-Tenant-Id", "t01");
+        HttpRequestDto src = req.toDto();
+
+        HttpRequestCodec.resetHeaderStats();
+        HttpRequestDto dto = HttpRequestCodec.decode(HttpRequestCodec.encode(src));
+        assertEquals(5, dto.getHeaders().size());
+        assertEquals("gzip, deflate, br", dto.getHeaders().get("accept-encoding"));
+        assertEquals("curl/7.68.0", dto.getHeaders().get("User-Agent"));
+        assertEquals("t01", dto.getHeaders().get("x-tenant-id"));
+        long staticOnly = HttpRequestCodec.getHeaderEncodedBytes();
+        // 3个 名称+值 各1字节，User-Agent名称1字节，X-Tenant-Id为字面量
+        assertTrue(staticOnly < 40);
+        assertTrue(HttpRequestCodec.getHeaderCompressionRatio() < 0.5);
+
+        HttpRequestCodec.setExtensionHeaders(Arrays.asList("X-Tenant-Id"));
+        try {
+            HttpRequestCodec.resetHeaderStats();
+            byte[] data = HttpRequestCodec.encode(src);
+            assertTrue(HttpRequestCodec.getHeaderEncodedBytes() < staticOnly);
+            assertEquals("t01", HttpRequestCodec.decode(data).getHeaders().get("X-TENANT-ID"));
+
+            HttpRequestCodec.setExtensionHeaders(Arrays.asList("X-Other"));
+            try {
+                HttpRequestCodec.decode(data);
+                fail("extension table mismatch");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        } finally {
+            HttpRequestCodec.setExtensionHeaders(null);
+        }
+    }
+
+    @Test
+    public void testMalformedCount() {
+        // 个数 0x7FFFFFFE 的varint
+        byte[] huge = { (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+        byte[] none = { 0 };
+        // headers
+        assertMalformed(concat(new byte[] { HttpRequestCodec.VERSION, 0 }, huge));
+        // headers的v1格式
+        assertMalformed(concat(new byte[] { 1 }, huge));
+        // parameters
+        assertMalformed(concat(new byte[] { HttpRequestCodec.VERSION, 0, 0 }, huge));
+        // 参数值
+        assertMalformed(concat(new byte[] { HttpRequestCodec.VERSION, 0, 0, 2, 1 }, huge));
+        // attributes
+        assertMalformed(concat(new byte[] { HttpRequestCodec.VERSION, 0, 0, 0 }, huge));
+        // 个数不超过剩余字节数时正常解码
+        HttpRequestDto dto = HttpRequestCodec
+                .decode(concat(new byte[] { HttpRequestCodec.VERSION, 0, 0, 2, 1, 2 }, new byte[] { 1 }, none));
+        assertArrayEquals(new String[] { "" }, dto.getParameters().get(""));
+    }
+
+    private static void assertMalformed(byte[] data) {
+        try {
+            HttpRequestCodec.decode(data);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // 不按伪造的个数分配内存
+        }
+    }
+
+    /**
+     * head[0]为version，其后补上8个null的str/bytes（method ~ bodyBytes），再接head的其余字节和rest
+     */
+    private static byte[] concat(byte[] head, byte[]... rest) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(head[0]);
+        for (int i = 0; i < 8; i++) {
+            bos.write(0);
+        }
+        bos.write(head, 1, head.length - 1);
+        for (byte[] b : rest) {
+            bos.write(b, 0, b.length);
+        }
+        return bos.toByteArray();
+    }
+
+    static byte[] serialize(Object obj) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(obj);
+        oos.close();
+        return bos.toByteArray();
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+/**
+ * MethodInvoker的两种实现与Method.invoke的异常语义一致
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class MethodInvokerTest {
+
+    public static class Target {
+        public String concat(String s, int n) {
+            return s + n;
+        }
+
+        public void checked(String msg) throws IOException {
+            throw new IOException(msg);
+        }
+
+        public void unchecked(String msg) {
+            throw new IllegalStateException(msg);
+        }
+
+        public void error(String msg) {
+            throw new AssertionError(msg);
+        }
+
+        public static long twice(long v) {
+            return v * 2;
+        }
+
+        void none() {
+        }
+    }
+
+    private static Method method(String name) {
+        for (Method m : Target.class.getDeclaredMethods()) {
+            if (m.getName().equals(name)) {
+                return m;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /**
+     * @return MethodHandle实现和反射实现
+     */
+    private static MethodInvoker[] invokers(String name) {
+        Method m = method(name);
+        Target target = new Target();
+        MethodInvoker handle = MethodInvoker.create(m, target);
+        assertTrue(handle instanceof MethodInvoker.HandleInvoker);
+        return new MethodInvoker[] { handle, new MethodInvoker.ReflectInvoker(m, target) };
+    }
+
+    @Test
+    public void testInvoke() throws Exception {
+        for (MethodInvoker invoker : invokers("concat")) {
+            assertEquals("a1", invoker.invoke(new Object[] { "a", 1 }));
+            assertEquals("null2", invoker.invoke(new Object[] { null, 2 }));
+        }
+        for (MethodInvoker invoker : invokers("twice")) {
+            assertEquals(6L, invoker.invoke(new Object[] { 3L }));
+        }
+        for (MethodInvoker invoker : invokers("none")) {
+            assertNull(invoker.invoke(new Object[0]));
+        }
+    }
+
+    @Test
+    public void testTargetException() throws Exception {
+        Class<?>[] expected = { IOException.class, IllegalStateException.class, AssertionError.class };
+        String[] names = { "checked", "unchecked", "error" };
+        for (int i = 0; i < names.length; i++) {
+            for (MethodInvoker invoker : invokers(names[i])) {
+                try {
+                    invoker.invoke(new Object[] { "boom" });
+                    fail(names[i]);
+                } catch (InvocationTargetException e) {
+                    assertEquals(expected[i], e.getCause().getClass());
+                    assertEquals("boom", e.getCause().getMessage());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIllegalArguments() throws Exception {
+        Object[][] cases = {
+                // 参数类型不匹配
+                { 1, 1 },
+                { "a", "1" },
+                { "a", 1L },
+                // null传给基本类型参数
+                { "a", null },
+                // 参数个数不匹配
+                { "a" } };
+        for (Object[] args : cases) {
+            for (MethodInvoker invoker : invokers("concat")) {
+                try {
+                    invoker.invoke(args);
+                    fail(invoker.getClass().getSimpleName());
+                } catch (IllegalArgumentException e) {
+                    // 与Method.invoke一致
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReflectFallback() throws Exception {
+        Method m = method("concat");
+        // 实例类型不匹配时无法绑定MethodHandle，退回反射调用，调用时与Method.invoke一样抛出IllegalArgumentException
+        MethodInvoker invoker = MethodInvoker.create(m, "not a target");
+        assertSame(MethodInvoker.ReflectInvoker.class, invoker.getClass());
+        try {
+            invoker.invoke(new Object[] { "a", 1 });
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class MvcConvertUtilsTest {
+
+    enum Color {
+        RED, GREEN
+    }
+
+    enum Size {
+        S, M
+    }
+
+    private static Object untyped(String value) {
+        return MvcConvertUtils.UNTYPED.parse(value);
+    }
+
+    @Test
+    public void testUntyped() {
+        Object[][] cases = {
+                { "12", 12 },
+                { "-12", -12 },
+                { "2147483648", 2147483648L },
+                { "-2147483649", -2147483649L },
+                { "1L", 1L },
+                { "-1l", -1L },
+                { "1.5", 1.5d },
+                { "-.5", -0.5d },
+                { "1.5F", 1.5f },
+                { "2f", 2f },
+                { "-9223372036854775808", Long.MIN_VALUE },
+                { "9223372036854775807", Long.MAX_VALUE },
+                // 超出Long范围的保持为字符串
+                { "9223372036854775808", "9223372036854775808" },
+                { "-9223372036854775809", "-9223372036854775809" },
+                { "123456789012345678901234567890", "123456789012345678901234567890" },
+                { "-", "-" },
+                { ".", "." },
+                { "", "" },
+                { "L", "L" },
+                { "-F", "-F" },
+                { "1.2.3", "1.2.3" },
+                { "1.5L", "1.5L" },
+                { "1.2.3F", "1.2.3F" },
+                { "12a", "12a" },
+                { "0x10", "0x10" },
+                { " 1", " 1" } };
+        for (Object[] c : cases) {
+            Object ret = untyped((String) c[0]);
+            assertEquals((String) c[0], c[1], ret);
+            assertEquals((String) c[0], c[1].getClass(), ret.getClass());
+        }
+        assertNull(untyped(null));
+        assertEquals(Long.valueOf(5L), MvcConvertUtils.convert("5L", "unknown.Type"));
+    }
+
+    @Test
+    public void testEnum() {
+        MvcConvertUtils.ParseValue p = MvcConvertUtils.canConvert(Color.class);
+        assertSame(p, MvcConvertUtils.canConvert(Color.class));
+        assertEquals(Color.GREEN, p.parse(" GREEN "));
+        try {
+            p.parse("BLUE");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // 不存在的枚举名称
+        }
+        try {
+            p.parse("green");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // 区分大小写
+        }
+    }
+
+    @Test
+    public void testConverters() {
+        assertEquals(new BigDecimal("12.50"), MvcConvertUtils.convert(" 12.50 ", BigDecimal.class));
+        assertEquals(new BigInteger("123456789012345678901234567890"),
+                MvcConvertUtils.convert("123456789012345678901234567890", BigInteger.class));
+        assertEquals(LocalDate.of(2026, 10, 18), MvcConvertUtils.convert("2026-10-18", LocalDate.class));
+        assertEquals(LocalTime.of(8, 30), MvcConvertUtils.convert("08:30", LocalTime.class));
+        LocalDateTime ldt = LocalDateTime.of(2026, 10, 18, 8, 30, 5);
+        assertEquals(ldt, MvcConvertUtils.convert("2026-10-18 08:30:05", LocalDateTime.class));
+        assertEquals(ldt, MvcConvertUtils.convert("2026-10-18T08:30:05", LocalDateTime.class));
+        assertEquals(Instant.ofEpochMilli(1000), MvcConvertUtils.convert("1000", Instant.class));
+        assertEquals(Instant.ofEpochMilli(1000), MvcConvertUtils.convert("1970-01-01T00:00:01Z", Instant.class));
+
+        ZoneId zone = ZoneId.systemDefault();
+        assertEquals(new Date(1000), MvcConvertUtils.convert("1000", Date.class));
+        assertEquals(Date.from(LocalDate.of(2026, 10, 18).atStartOfDay(zone).toInstant()),
+                MvcConvertUtils.convert("2026-10-18", Date.class));
+        assertEquals(Date.from(ldt.atZone(zone).toInstant()),
+                MvcConvertUtils.convert("2026-10-18 08:30:05", Date.class));
+
+        try {
+            MvcConvertUtils.convert("12,5", BigDecimal.class);
+            fail();
+        } catch (NumberFormatException e) {
+            // expected
+        }
+        // 不能转换的类型，第二次查询命中NONE占位
+        assertNull(MvcConvertUtils.canConvert(MvcConvertUtilsTest.class));
+        assertNull(MvcConvertUtils.canConvert(MvcConvertUtilsTest.class));
+    }
+
+    @Test
+    public void testRegisterConverter() {
+        // 优先于已解析过的转换器
+        assertEquals(Size.M, MvcConvertUtils.convert("M", Size.class));
+        MvcConvertUtils.registerConverter(Size.class, value -> Size.valueOf(value.toUpperCase()));
+        assertEquals(Size.M, MvcConvertUtils.convert("m", Size.class));
+
+        // 优先于内置转换器
+        MvcConvertUtils.ParseValue builtin = MvcConvertUtils.canConvert(Short.class);
+        assertTrue(MvcConvertUtils.isBuiltinConverter(Short.class, builtin));
+        MvcConvertUtils.ParseValue custom = value -> Short.valueOf(value.trim());
+        MvcConvertUtils.registerConverter(Short.class, custom);
+        try {
+            assertSame(custom, MvcConvertUtils.canConvert(Short.class));
+            assertEquals(Short.valueOf((short) 7), MvcConvertUtils.convert(" 7 ", Short.class));
+            assertFalse(MvcConvertUtils.isBuiltinConverter(Short.class, custom));
+            assertTrue(MvcConvertUtils.isBuiltinConverter(short.class, MvcConvertUtils.canConvert(short.class)));
+        } finally {
+            MvcConvertUtils.registerConverter(Short.class, builtin);
+        }
+    }
+
+}
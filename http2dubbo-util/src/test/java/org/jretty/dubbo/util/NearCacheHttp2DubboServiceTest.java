@@ -0,0 +1,188 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jretty.apibase.Request;
+import org.jretty.apibase.Result;
+import org.jretty.dubbo.api.Http2DubboService;
+import org.jretty.dubbo.api.ResponseInvalidationListener;
+import org.jretty.dubbo.dto.HttpRequestDto;
+import org.jretty.dubbo.dto.HttpResponseDto;
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class NearCacheHttp2DubboServiceTest {
+
+    /**
+     * 进程内的服务端：GET响应可以缓存，每次调用返回递增的版本号
+     */
+    static class StubProvider implements Http2DubboService {
+        final AtomicInteger calls = new AtomicInteger();
+        ResponseCache cache;
+        /** 不为null时，在生成响应期间执行（模拟此时发生了失效） */
+        Runnable duringInvoke;
+
+        @Override
+        public Result<String> route(Request<HttpRequestDto> request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Result<HttpResponseDto> routeBytes(Request<HttpRequestDto> request) {
+            long generation = cache.generation();
+            int version = calls.incrementAndGet();
+            if (duringInvoke != null) {
+                duringInvoke.run();
+            }
+            HttpResponseDto resp = new HttpResponseDto(("v" + version).getBytes(StandardCharsets.UTF_8));
+            if ("GET".equals(request.getData().getMethod())) {
+                resp.setMaxAge(60000);
+                resp.setEpoch(cache.epoch);
+                resp.setGeneration(generation);
+                resp.setEtag(ETags.of(resp.getBody()));
+            }
+            return Result.create(resp);
+        }
+    }
+
+    private static Request<HttpRequestDto> request(String method, String url, String id) {
+        return request(method, url, id, null);
+    }
+
+    private static Request<HttpRequestDto> request(String method, String url, String id, String ifNoneMatch) {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod(method);
+        req.setRequestURI(url);
+        req.setParameter("id", id);
+        if (ifNoneMatch != null) {
+            req.setHeader("If-None-Match", ifNoneMatch);
+        }
+        return new Request<HttpRequestDto>(req.toDto());
+    }
+
+    private static String body(Result<HttpResponseDto> result) {
+        return new String(result.getData().getBody(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testCacheAndInvalidate() {
+        StubProvider provider = new StubProvider();
+        NearCacheHttp2DubboService gateway = new NearCacheHttp2DubboService(provider, 100);
+        // 服务端缓存失效时通知网关（跨进程时为broadcast的dubbo调用）
+        provider.cache = new ResponseCache(100, Collections.<ResponseInvalidationListener>singletonList(gateway));
+
+        assertEquals("v1", body(gateway.routeBytes(request("GET", "/item/detail", "42"))));
+        assertEquals("v1", body(gateway.routeBytes(request("GET", "/item/detail", "42"))));
+        assertEquals("v2", body(gateway.routeBytes(request("GET", "/item/detail", "43"))));
+        assertEquals(2, provider.calls.get());
+
+        // 非GET请求不缓存
+        assertEquals("v3", body(gateway.routeBytes(request("POST", "/item/detail", "42"))));
+        assertEquals("v4", body(gateway.routeBytes(request("POST", "/item/detail", "42"))));
+
+        provider.cache.invalidate("GET /item/");
+        assertEquals(0, gateway.getCache().size());
+        assertEquals("v5", body(gateway.routeBytes(request("GET", "/item/detail", "42"))));
+        assertEquals("v5", body(gateway.routeBytes(request("GET", "/item/detail", "42"))));
+        assertEquals(5, provider.calls.get());
+    }
+
+    @Test
+    public void testNonScalarAttributeNotCached() {
+        StubProvider provider = new StubProvider();
+        NearCacheHttp2DubboService gateway = new NearCacheHttp2DubboService(provider, 100);
+        provider.cache = new ResponseCache(100);
+
+        // 进程内调用时attribute可以是任意对象，无法计算键，不缓存
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod("GET");
+        req.setRequestURI("/item/detail");
+        req.setAttribute("user", new Object());
+        Request<HttpRequestDto> request = new Request<HttpRequestDto>(req.toDto());
+        assertEquals("v1", body(gateway.routeBytes(request)));
+        assertEquals("v2", body(gateway.routeBytes(request)));
+        assertEquals(0, gateway.getCache().size());
+    }
+
+    @Test
+    public void testStaleResponseNotCached() {
+        final StubProvider provider = new StubProvider();
+        NearCacheHttp2DubboService gateway = new NearCacheHttp2DubboService(provider, 100);
+        provider.cache = new ResponseCache(100, Collections.<ResponseInvalidationListener>singletonList(gateway));
+
+        // 生成响应期间发生了失效，失效通知先于响应到达网关：该响应不缓存
+        provider.duringInvoke = () -> provider.cache.invalidate("GET /item/");
+        assertEquals("v1", body(gateway.routeBytes(request("GET", "/item/detail", "42"))));
+        assertEquals(0, gateway.getCache().size());
+
+        provider.duringInvoke = null;
+        assertEquals("v2", body(gateway.routeBytes(request("GET", "/item/detail", "42"))));
+        assertEquals("v2", body(gateway.routeBytes(request("GET", "/item/detail", "42"))));
+    }
+
+    @Test
+    public void testGenerationPerProvider() {
+        // 两个服务端实例的代数各自计数，网关按epoch分别比较
+        final StubProvider a = new StubProvider();
+        final StubProvider b = new StubProvider();
+        StubProvider[] target = { a };
+        Http2DubboService lb = new StubProvider() {
+            @Override
+            public Result<HttpResponseDto> routeBytes(Request<HttpRequestDto> request) {
+                return target[0].routeBytes(request);
+            }
+        };
+        NearCacheHttp2DubboService gateway = new NearCacheHttp2DubboService(lb, 100);
+        a.cache = new ResponseCache(100, Collections.<ResponseInvalidationListener>singletonList(gateway));
+        b.cache = new ResponseCache(100, Collections.<ResponseInvalidationListener>singletonList(gateway));
+
+        // a失效多次，代数远大于b的代数：不影响缓存b生成的响应
+        for (int i = 0; i < 5; i++) {
+            a.cache.invalidate("GET /item/");
+        }
+        target[0] = b;
+        assertEquals("v1", body(gateway.routeBytes(request("GET", "/item/detail", "42"))));
+        assertEquals(1, gateway.getCache().size());
+
+        // b生成响应期间b发生了失效：不缓存，虽然b的代数小于a已通知的代数
+        b.duringInvoke = () -> b.cache.invalidate("GET /item/");
+        assertEquals("v2", body(gateway.routeBytes(request("GET", "/item/detail", "43"))));
+        assertEquals(0, gateway.getCache().size());
+
+        // 没有epoch的响应无法判断是否已失效，不缓存
+        gateway.getCache().put("GET /item/x?", "GET /item/x", 60000, new byte[1], null, 0, null);
+        assertEquals(0, gateway.getCache().size());
+    }
+
+    @Test
+    public void testNotModified() {
+        StubProvider provider = new StubProvider();
+        NearCacheHttp2DubboService gateway = new NearCacheHttp2DubboService(provider, 100);
+        provider.cache = new ResponseCache(100);
+
+        HttpResponseDto first = gateway.routeBytes(request("GET", "/item/detail", "42")).getData();
+        String etag = first.getEtag();
+        assertEquals(ETags.of(first.getBody()), etag);
+
+        // 命中缓存，If-None-Match匹配：304，不带body
+        HttpResponseDto resp = gateway.routeBytes(request("GET", "/item/detail", "42", etag)).getData();
+        assertEquals(HttpResponseDto.NOT_MODIFIED, resp.getStatus());
+        assertNull(resp.getBody());
+        assertEquals(etag, resp.getEtag());
+
+        // 不匹配时返回完整响应
+        resp = gateway.routeBytes(request("GET", "/item/detail", "42", "\"x\"")).getData();
+        assertEquals(200, resp.getStatus());
+        assertEquals("v1", new String(resp.getBody(), StandardCharsets.UTF_8));
+        assertEquals(1, provider.calls.get());
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.jretty.dubbo.util;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * 基本类型参数的调用对比：
+ * boxed —— 通用路径（ArgumentResolver逐个取值、ParseValue装箱，再经MethodInvoker拆箱调用）
+ * primitive —— PrimitiveInvoker（字符串直接解析为基本类型调用）
+ * <p>
+ * 运行：mvn test-compile 后执行本类的main方法；加上 -prof gc 可对比每次调用的内存分配。
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveArgsBenchmark {
+
+    public static class OrderController {
+        public long get(@PathVariable long id, @RequestParam("page") int page) {
+            return id + page;
+        }
+    }
+
+    private ArgumentResolver[] resolvers;
+    private MethodInvoker invoker;
+    private PrimitiveInvoker primitiveInvoker;
+    private SimpleHttpRequest request;
+    private List<String> pathVals;
+
+    @Setup
+    public void setup() throws Exception {
+        OrderController ctrl = new OrderController();
+        Method method = OrderController.class.getMethod("get", long.class, int.class);
+        resolvers = ArgumentResolver.compile(method, new DefaultParameterNameDiscoverer());
+        invoker = MethodInvoker.create(method, ctrl);
+        primitiveInvoker = PrimitiveInvoker.create(method, ctrl, resolvers);
+        request = new SimpleHttpRequest();
+        request.setParameter("page", "20");
+        pathVals = Collections.singletonList("1234567");
+    }
+
+    @Benchmark
+    public Object boxed() throws Exception {
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(request, pathVals);
+        }
+        return invoker.invoke(args);
+    }
+
+    @Benchmark
+    public Object primitive() throws Throwable {
+        return primitiveInvoker.invoke(request, pathVals);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(PrimitiveArgsBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+
+}
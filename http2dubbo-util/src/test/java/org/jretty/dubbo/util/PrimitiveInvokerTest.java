@@ -0,0 +1,226 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * PrimitiveInvoker与通用路径（ArgumentResolver + MethodInvoker）的结果和异常一致
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class PrimitiveInvokerTest {
+
+    @RestController
+    @RequestMapping("/prim")
+    public static class PrimController {
+        @GetMapping("/wide")
+        public String wide(@RequestParam("i") int i, @RequestParam("l") long l, @RequestParam("d") double d,
+                @RequestParam("f") float f) {
+            return i + "," + l + "," + d + "," + f;
+        }
+
+        @GetMapping("/narrow")
+        public String narrow(@RequestParam("s") short s, @RequestParam("b") byte b, @RequestParam("c") char c,
+                @RequestParam("z") boolean z) {
+            return s + "," + b + "," + c + "," + z;
+        }
+
+        @GetMapping("/text/{id}")
+        public String text(@PathVariable long id, @RequestHeader("X-Name") String name) {
+            return id + ":" + name;
+        }
+
+        @GetMapping("/page")
+        public int page(@RequestParam(value = "page", defaultValue = "1") int page,
+                @RequestHeader(value = "X-Size", defaultValue = "20") int size) {
+            return page * 100 + size;
+        }
+
+        @GetMapping("/name")
+        public String name(@RequestParam("name") String name) {
+            return "name=" + name;
+        }
+
+        @GetMapping("/fail")
+        public int fail(@RequestParam("code") int code) throws IOException {
+            throw new IOException("code " + code);
+        }
+
+        public String body(@RequestBody String body) {
+            return body;
+        }
+    }
+
+    private final PrimController ctrl = new PrimController();
+
+    private static Method method(String name) {
+        for (Method m : PrimController.class.getMethods()) {
+            if (m.getName().equals(name)) {
+                return m;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static ArgumentResolver[] resolvers(Method m) {
+        return ArgumentResolver.compile(m, new DefaultParameterNameDiscoverer());
+    }
+
+    private Object primitive(String name, SimpleHttpRequest req, String... pathVals) throws Throwable {
+        Method m = method(name);
+        PrimitiveInvoker invoker = PrimitiveInvoker.create(m, ctrl, resolvers(m));
+        assertNotNull(name, invoker);
+        return invoker.invoke(req, Arrays.asList(pathVals));
+    }
+
+    private Object boxed(String name, SimpleHttpRequest req, String... pathVals) throws Exception {
+        Method m = method(name);
+        ArgumentResolver[] resolvers = resolvers(m);
+        List<String> path = Arrays.asList(pathVals);
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(req, path);
+        }
+        return MethodInvoker.create(m, ctrl).invoke(args);
+    }
+
+    private static SimpleHttpRequest params(String... kv) {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        for (int i = 0; i < kv.length; i += 2) {
+            req.setParameter(kv[i], kv[i + 1]);
+        }
+        return req;
+    }
+
+    @Test
+    public void testPrimitiveTypes() throws Throwable {
+        SimpleHttpRequest req = params("i", "-7", "l", "9007199254740993", "d", "1.25", "f", "2.5");
+        assertEquals("-7,9007199254740993,1.25,2.5", primitive("wide", req));
+        assertEquals(boxed("wide", req), primitive("wide", req));
+
+        req = params("s", "300", "b", "-8", "c", "xyz", "z", "TRUE");
+        assertEquals("300,-8,x,true", primitive("narrow", req));
+        assertEquals(boxed("narrow", req), primitive("narrow", req));
+
+        req = new SimpleHttpRequest();
+        req.setHeader("X-Name", "中文");
+        assertEquals("42:中文", primitive("text", req, "42"));
+        assertEquals(boxed("text", req, "42"), primitive("text", req, "42"));
+    }
+
+    @Test
+    public void testNotApplicable() {
+        Method m = method("body");
+        assertNull(PrimitiveInvoker.create(m, ctrl, resolvers(m)));
+    }
+
+    @Test
+    public void testMissingValueFallsBack() throws Throwable {
+        SimpleHttpRequest req = params("i", "1", "l", "2", "d", "3");
+        assertSame(PrimitiveInvoker.FALLBACK, primitive("wide", req));
+        // 通用路径：null传给基本类型参数
+        try {
+            boxed("wide", req);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        req = new SimpleHttpRequest();
+        assertSame(PrimitiveInvoker.FALLBACK, primitive("name", req));
+        assertEquals("name=null", boxed("name", req));
+        assertSame(PrimitiveInvoker.FALLBACK, primitive("text", req, "42"));
+        assertEquals("42:null", boxed("text", req, "42"));
+    }
+
+    @Test
+    public void testDefaultValue() throws Throwable {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        assertEquals(120, primitive("page", req));
+        assertEquals(boxed("page", req), primitive("page", req));
+
+        req = params("page", "3");
+        req.setHeader("X-Size", "50");
+        assertEquals(350, primitive("page", req));
+        assertEquals(boxed("page", req), primitive("page", req));
+    }
+
+    @Test
+    public void testParseError() throws Throwable {
+        String[][] cases = { { "i", "x", "l", "2", "d", "3", "f", "4" }, { "i", "1", "l", "2.0", "d", "3", "f", "4" },
+                { "i", "1", "l", "2", "d", "3", "f", "" } };
+        for (String[] kv : cases) {
+            Throwable expected = null;
+            try {
+                boxed("wide", params(kv));
+                fail();
+            } catch (Exception e) {
+                expected = e;
+            }
+            try {
+                primitive("wide", params(kv));
+                fail();
+            } catch (Throwable e) {
+                assertEquals(expected.getClass(), e.getClass());
+                assertEquals(expected.getMessage(), e.getMessage());
+            }
+        }
+        // char的空字符串
+        try {
+            primitive("narrow", params("s", "1", "b", "2", "c", "", "z", "true"));
+            fail();
+        } catch (StringIndexOutOfBoundsException e) {
+            // 与通用路径一致
+        }
+    }
+
+    @Test
+    public void testTargetException() throws Throwable {
+        try {
+            primitive("fail", params("code", "5"));
+            fail();
+        } catch (InvocationTargetException e) {
+            assertEquals(IOException.class, e.getCause().getClass());
+            assertEquals("code 5", e.getCause().getMessage());
+        }
+
+        // 经SpringControllerInvoke调用：与原来一样返回Controller抛出的异常本身
+        StaticApplicationContext ctx = new StaticApplicationContext();
+        ctx.registerSingleton("primController", PrimController.class);
+        ctx.refresh();
+        SpringControllerInvoke invoker = new SpringControllerInvoke(ctx);
+        SimpleHttpRequest req = params("code", "6");
+        req.setMethod("GET");
+        req.setRequestURI("/prim/fail");
+        Object ret = invoker.doInvoke(req.toDto());
+        assertEquals(IOException.class, ret.getClass());
+        assertEquals("code 6", ((IOException) ret).getMessage());
+
+        req = params("page", "2");
+        req.setMethod("GET");
+        req.setRequestURI("/prim/page");
+        assertEquals(220, invoker.doInvoke(req.toDto()));
+    }
+
+}
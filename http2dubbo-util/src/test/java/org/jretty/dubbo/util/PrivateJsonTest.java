@@ -0,0 +1,144 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 按声明的返回类型预先创建的TypedWriter，何时使用以及序列化结果
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class PrivateJsonTest {
+
+    public static final class Dto {
+        private final String name;
+
+        public Dto(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static class Base {
+        public String getName() {
+            return "a";
+        }
+    }
+
+    public static class Sub extends Base {
+        public int getLevel() {
+            return 2;
+        }
+    }
+
+    @RestController
+    @RequestMapping("/json")
+    public static class DtoController {
+        @GetMapping("/list")
+        public List<Dto> list() {
+            return new ArrayList<Dto>(Arrays.asList(new Dto("a"), new Dto("中文")));
+        }
+
+        @GetMapping("/groups")
+        public Map<String, List<Long>> groups() {
+            return Collections.singletonMap("g", Arrays.asList(1L, 2L));
+        }
+
+        @GetMapping("/bases")
+        public List<Base> bases() {
+            return Arrays.asList(new Base(), new Sub());
+        }
+
+        @GetMapping("/one")
+        public Base one() {
+            return new Sub();
+        }
+    }
+
+    private static PrivateJson.TypedWriter writer(String name) throws Exception {
+        return PrivateJson.writerFor(DtoController.class.getMethod(name).getGenericReturnType());
+    }
+
+    @Test
+    public void testFinalContentWriter() throws Exception {
+        PrivateJson.TypedWriter writer = writer("list");
+        assertTrue(writer.acceptSubtypes);
+        // 声明为List，运行时为各种List实现都使用预先创建的writer
+        assertTrue(writer.accepts(new ArrayList<Dto>()));
+        assertTrue(writer.accepts(new LinkedList<Dto>()));
+        assertTrue(writer.accepts(Arrays.asList(new Dto("a"))));
+        assertTrue(writer.accepts(Collections.emptyList()));
+        assertFalse(writer.accepts(Collections.emptySet()));
+        assertFalse(writer.accepts(null));
+
+        List<Dto> list = new DtoController().list();
+        String json = "[{\"name\":\"a\"},{\"name\":\"中文\"}]";
+        assertEquals(json, PrivateJson.toJSONString(writer, list));
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), PrivateJson.toJSONBytes(writer, list));
+
+        writer = writer("groups");
+        assertTrue(writer.acceptSubtypes);
+        Map<String, List<Long>> groups = new LinkedHashMap<String, List<Long>>(new DtoController().groups());
+        assertTrue(writer.accepts(groups));
+        assertEquals(PrivateJson.toJSONString(groups), PrivateJson.toJSONString(writer, groups));
+    }
+
+    @Test
+    public void testSubtypeContent() throws Exception {
+        // 元素类型可能有子类时，只有运行时类型一致才使用，元素按实际类型序列化，不丢失子类属性
+        PrivateJson.TypedWriter writer = writer("bases");
+        assertFalse(writer.acceptSubtypes);
+        List<Base> bases = new ArrayList<Base>(new DtoController().bases());
+        assertFalse(writer.accepts(bases));
+        assertEquals("[{\"name\":\"a\"},{\"level\":2,\"name\":\"a\"}]", PrivateJson.toJSONString(writer, bases));
+    }
+
+    @Test
+    public void testBeanWriter() throws Exception {
+        PrivateJson.TypedWriter writer = writer("one");
+        assertFalse(writer.acceptSubtypes);
+        assertTrue(writer.accepts(new Base()));
+        // 声明为父类、返回子类时按实际类型序列化
+        assertFalse(writer.accepts(new Sub()));
+        assertEquals("{\"level\":2,\"name\":\"a\"}", PrivateJson.toJSONString(writer, new Sub()));
+        assertEquals("{\"name\":\"a\"}", PrivateJson.toJSONString(writer, new Base()));
+    }
+
+    @Test
+    public void testRouteWriter() throws Throwable {
+        StaticApplicationContext ctx = new StaticApplicationContext();
+        ctx.registerSingleton("dtoController", DtoController.class);
+        ctx.refresh();
+        SpringControllerInvoke invoker = new SpringControllerInvoke(ctx);
+
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setRequestURI("/json/list");
+        req.setMethod("GET");
+        Object result = invoker.doInvoke(req.toDto());
+        // 返回List<Dto>的路由使用按声明类型创建的writer
+        assertTrue(RouteSettingsTest.meta(invoker, "GET /json/list").resultWriter.accepts(result));
+        assertEquals("[{\"name\":\"a\"},{\"name\":\"中文\"}]", invoker.doInvokeToJson(req.toDto()));
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RequestBodyToolTest {
+
+    /**
+     * @param contentLength -1表示未知长度（chunked）
+     */
+    private static HttpServletRequest request(final byte[] body, final int contentLength) {
+        final ServletInputStream in = new ServletInputStream() {
+            private final ByteArrayInputStream data = new ByteArrayInputStream(body);
+
+            @Override
+            public int read() throws IOException {
+                return data.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                // 每次最多返回1000字节，模拟网络分段到达
+                return data.read(b, off, Math.min(len, 1000));
+            }
+        };
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("getContentLength")) {
+                        return contentLength;
+                    }
+                    if (method.getName().equals("getInputStream")) {
+                        return in;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static byte[] body(int length) {
+        byte[] body = new byte[length];
+        for (int i = 0; i < length; i++) {
+            body[i] = (byte) i;
+        }
+        return body;
+    }
+
+    @Test
+    public void testContentLength() throws IOException {
+        byte[] body = body(5000);
+        assertArrayEquals(body, RequestBodyTool.readBody(request(body, body.length)));
+        assertEquals(0, RequestBodyTool.readBody(request(new byte[0], 0)).length);
+
+        // 实际数据比Content-Length短
+        byte[] read = RequestBodyTool.readBody(request(body, body.length + 100));
+        assertArrayEquals(body, read);
+    }
+
+    @Test
+    public void testUnknownLength() throws IOException {
+        for (int length : new int[] { 0, 10, 8 * 1024, 100 * 1024, 1024 * 1024 }) {
+            byte[] body = body(length);
+            byte[] read = RequestBodyTool.readBody(request(body, -1));
+            assertEquals(length, read.length);
+            assertArrayEquals(body, read);
+        }
+        // 超过预分配上限时按未知长度读取
+        byte[] body = body(RequestBodyTool.PREALLOCATE_LIMIT + 1);
+        assertArrayEquals(body, RequestBodyTool.readBody(request(body, body.length)));
+        assertEquals(3, RequestBodyTool.readBody(request(Arrays.copyOf(body, 3), -1)).length);
+    }
+
+}
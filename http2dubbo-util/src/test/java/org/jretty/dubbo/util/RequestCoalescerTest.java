@@ -0,0 +1,149 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RequestCoalescerTest {
+
+    private static final int THREADS = 8;
+
+    private static void awaitCoalesced(RequestCoalescer coalescer, long n) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coalescer.getCoalescedCount() < n && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static Object execute(RequestCoalescer coalescer, String key, RequestCoalescer.Invocation invocation)
+            throws Exception {
+        try {
+            return coalescer.execute("GET /item/detail", key, invocation);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new Exception(e);
+        }
+    }
+
+    @Test
+    public void testShareResult() throws Exception {
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final Object result = new Object();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> execute(coalescer, "GET /item/detail?id=42", () -> {
+                    calls.incrementAndGet();
+                    release.await();
+                    return result;
+                })));
+            }
+            awaitCoalesced(coalescer, THREADS - 1);
+            release.countDown();
+            for (Future<Object> f : futures) {
+                assertSame(result, f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, coalescer.getInvocationCount());
+        assertEquals(THREADS - 1, coalescer.getCoalescedCount());
+        assertEquals(Long.valueOf(THREADS - 1), coalescer.getCoalescedCountByRoute().get("GET /item/detail"));
+        assertEquals(0, coalescer.getInFlightCount());
+
+        // 调用结束后不再共享
+        assertSame(result, execute(coalescer, "GET /item/detail?id=42", () -> result));
+        assertEquals(2, coalescer.getInvocationCount());
+    }
+
+    @Test
+    public void testShareException() throws Exception {
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        return execute(coalescer, "k", () -> {
+                            release.await();
+                            throw new IllegalStateException("db down");
+                        });
+                    } catch (Exception e) {
+                        return e;
+                    }
+                }));
+            }
+            awaitCoalesced(coalescer, 1);
+            release.countDown();
+            for (Future<Object> f : futures) {
+                Object r = f.get(5, TimeUnit.SECONDS);
+                assertTrue(r instanceof IllegalStateException);
+                assertEquals("db down", ((Throwable) r).getMessage());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, coalescer.getInvocationCount());
+    }
+
+    @Test
+    public void testFollowerTimeout() throws Exception {
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        coalescer.setTimeoutMillis(50);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Object result = new Object();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> leader = pool.submit(() -> execute(coalescer, "k", () -> {
+                entered.countDown();
+                release.await();
+                return result;
+            }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            // 等待超时，不影响正在执行的调用
+            try {
+                execute(coalescer, "k", () -> {
+                    throw new AssertionError("should share the running invocation");
+                });
+                fail("should time out");
+            } catch (TimeoutException e) {
+                assertEquals("coalesced request timeout after 50 ms: GET /item/detail", e.getMessage());
+            }
+            assertEquals(1, coalescer.getTimeoutCount());
+            assertEquals(1, coalescer.getInFlightCount());
+
+            release.countDown();
+            assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, coalescer.getInvocationCount());
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+}
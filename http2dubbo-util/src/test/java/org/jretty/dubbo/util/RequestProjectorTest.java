@@ -0,0 +1,128 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jretty.dubbo.dto.HttpRequestDto;
+import org.jretty.dubbo.dto.RouteSpec;
+import org.junit.Test;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RequestProjectorTest {
+
+    public static class OrderQuery {
+        private int page;
+        private String status;
+
+        public int getPage() {
+            return page;
+        }
+
+        public void setPage(int page) {
+            this.page = page;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+    }
+
+    public static class OrderController {
+        public Object get(@PathVariable("id") long id, @RequestParam("fields") String fields,
+                @RequestHeader("X-Token") String token) {
+            return null;
+        }
+
+        public Object list(OrderQuery query) {
+            return null;
+        }
+
+        public Object save(@RequestBody OrderQuery order) {
+            return null;
+        }
+    }
+
+    private static RouteSpec spec(String name, String methodType, String url) throws Exception {
+        Method method = null;
+        for (Method m : OrderController.class.getMethods()) {
+            if (m.getName().equals(name)) {
+                method = m;
+            }
+        }
+        ControllerMatchMeta.MethodMatchMeta cm = new ControllerMatchMeta().new MethodMatchMeta();
+        cm.methodType = methodType;
+        cm.methodUrl = url;
+        cm.resolvers = ArgumentResolver.compile(method, new DefaultParameterNameDiscoverer());
+        return RequestProjector.describe(cm, "/order");
+    }
+
+    private static SimpleHttpRequest request(String method, String url) {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod(method);
+        req.setRequestURI(url);
+        req.setHeader("Cookie", "JSESSIONID=0123456789ABCDEF; _ga=GA1.2.1234567890.1234567890");
+        req.setHeader("x-token", "t-001");
+        req.setHeader("User-Agent", "Mozilla/5.0");
+        req.setParameter("fields", "id,name");
+        req.setParameter("page", "2");
+        req.setParameter("status", "PAID");
+        req.setParameter("utm_source", "mail");
+        req.setAttribute("app_userId", "u1");
+        req.setBodyBytes("{\"page\":1}".getBytes(StandardCharsets.UTF_8), "UTF-8");
+        return req;
+    }
+
+    @Test
+    public void testProject() throws Exception {
+        List<RouteSpec> manifest = new ArrayList<RouteSpec>();
+        manifest.add(spec("get", "GET", "/order/get/{id}"));
+        manifest.add(spec("list", "GET", "/order/list"));
+        manifest.add(spec("save", "POST", "/order/save"));
+        RequestProjector projector = new RequestProjector(manifest);
+
+        HttpRequestDto dto = projector.project(request("GET", "/order/get/101").toDto());
+        assertEquals(1, dto.getHeaders().size());
+        assertEquals("t-001", dto.getHeaders().get("X-Token"));
+        assertEquals(1, dto.getParameters().size());
+        assertEquals("id,name", dto.getParameters().get("fields")[0]);
+        assertTrue(dto.getAttributes().isEmpty());
+        assertNull(dto.getBodyBytes());
+        assertNull(dto.getBodyString());
+
+        // JavaBean参数：只保留属性对应的参数
+        dto = projector.project(request("GET", "/order/list").toDto());
+        assertEquals(2, dto.getParameters().size());
+        assertNotNull(dto.getParameters().get("page"));
+        assertNotNull(dto.getParameters().get("status"));
+        assertTrue(dto.getHeaders().isEmpty());
+
+        dto = projector.project(request("POST", "/order/save").toDto());
+        assertEquals("{\"page\":1}", dto.getBodyString());
+        assertTrue(dto.getParameters().isEmpty());
+
+        // 未匹配的路由原样返回
+        HttpRequestDto src = request("GET", "/user/list").toDto();
+        assertSame(src, projector.project(src));
+    }
+
+}
@@ -0,0 +1,190 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jretty.dubbo.api.ResponseInvalidationListener;
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class ResponseCacheTest {
+
+    private long now = 1000;
+
+    private ResponseCache cache(int maximumSize) {
+        ResponseCache cache = new ResponseCache(maximumSize);
+        cache.clock = () -> now;
+        return cache;
+    }
+
+    private static SimpleHttpRequest request(String url, String type, String page) {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod("GET");
+        req.setRequestURI(url);
+        req.setParameter("type", type);
+        if (page != null) {
+            req.setParameter("page", page);
+        }
+        req.setParameter("_t", String.valueOf(System.nanoTime()));
+        req.setHeader("Accept-Language", "zh-CN");
+        req.setAttribute("userId", "u1");
+        return req;
+    }
+
+    @Test
+    public void testRequestKey() {
+        RequestKey key = new RequestKey(new String[] { "type", "page" }, new String[] { "accept-language" },
+                new String[] { "userId" });
+        String k1 = key.of(request("/dict/list", "a", "1"));
+        // 未指定的参数（_t）不参与计算
+        assertEquals(k1, key.of(request("/dict/list", "a", "1")));
+        assertNotEquals(k1, key.of(request("/dict/list", "a", "2")));
+        assertNotEquals(k1, key.of(request("/dict/list", "a", null)));
+        assertNotEquals(k1, key.of(request("/dict/get", "a", "1")));
+        // 值中含有分隔符
+        assertNotEquals(key.of(request("/dict/list", "a&page=1", null)), key.of(request("/dict/list", "a", "1")));
+        assertEquals(0, k1.indexOf("GET /dict/list?"));
+
+        // 全部参数
+        RequestKey all = new RequestKey(null, null, null);
+        assertNotEquals(all.of(request("/dict/list", "a", "1")), all.of(request("/dict/list", "a", "1")));
+    }
+
+    @Test
+    public void testAttributeValueTypes() {
+        RequestKey key = new RequestKey(new String[] { "type" }, null, new String[] { "userId" });
+        SimpleHttpRequest req = request("/dict/list", "a", null);
+        String k1 = key.of(req);
+        req.setAttribute("userId", 10086L);
+        String k2 = key.of(req);
+        assertNotNull(k2);
+        assertNotEquals(k1, k2);
+        req.setAttribute("userId", 'c');
+        assertNotNull(key.of(req));
+
+        // toString不能完整表示值的类型：无法计算键
+        req.setAttribute("userId", new Object());
+        assertNull(key.of(req));
+        req.setAttribute("userId", Collections.singletonList("u1"));
+        assertNull(key.of(req));
+        // 未参与计算键的attribute不受限制
+        req.setAttribute("userId", "u1");
+        req.setAttribute("user", new Object());
+        assertEquals(k1, key.of(req));
+        assertNull(RequestKey.all().of(req));
+
+        assertTrue(RequestKey.isScalar(int.class));
+        assertTrue(RequestKey.isScalar(Double.class));
+        assertFalse(RequestKey.isScalar(Object.class));
+        assertFalse(RequestKey.isScalar(java.math.BigDecimal.class));
+    }
+
+    @Test
+    public void testGetAndExpire() {
+        ResponseCache cache = cache(100);
+        ResponseCache.Policy policy = new ResponseCache.Policy("GET /dict/list", 5000, null);
+        byte[] body = "[1,2]".getBytes(StandardCharsets.UTF_8);
+        assertNull(cache.get("k1"));
+        cache.put("k1", policy, body, cache.generation());
+        ResponseCache.Entry e = cache.get("k1");
+        assertNotNull(e);
+        assertArrayEquals(body, e.body);
+        assertEquals("[1,2]", e.json());
+
+        now += 5000;
+        assertNull(cache.get("k1"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getExpirationCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictAndInvalidate() {
+        ResponseCache cache = cache(2);
+        ResponseCache.Policy list = new ResponseCache.Policy("GET /dict/list", 60000, null);
+        ResponseCache.Policy get = new ResponseCache.Policy("GET /dict/{type}", 60000, null);
+        cache.put("GET /dict/list?a", list, new byte[1], cache.generation());
+        cache.put("GET /dict/list?b", list, new byte[1], cache.generation());
+        cache.get("GET /dict/list?a");
+        cache.put("GET /dict/x?", get, new byte[1], cache.generation());
+        // 淘汰最久未访问的
+        assertNull(cache.get("GET /dict/list?b"));
+        assertNotNull(cache.get("GET /dict/list?a"));
+        assertEquals(1, cache.getEvictionCount());
+
+        assertEquals(1, cache.invalidateRoute("GET /dict/{type}"));
+        assertNull(cache.get("GET /dict/x?"));
+        now++;
+        cache.put("GET /dict/y?", get, new byte[1], cache.generation());
+        assertEquals(2, cache.invalidate("GET /dict/"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testGeneration() {
+        final List<String> notified = new ArrayList<String>();
+        final List<Long> generations = new ArrayList<Long>();
+        ResponseCache cache = new ResponseCache(100,
+                Collections.<ResponseInvalidationListener>singletonList((prefix, epoch, g) -> {
+                    notified.add(prefix);
+                    generations.add(g);
+                }));
+        cache.clock = () -> now;
+        ResponseCache.Policy policy = new ResponseCache.Policy("GET /dict/{type}", 60000, null);
+
+        // 开始生成响应之后发生了失效：不缓存
+        long generation = cache.generation();
+        cache.invalidateRoute("GET /dict/{type}");
+        cache.put("GET /dict/a?", policy, new byte[1], generation);
+        assertNull(cache.get("GET /dict/a?"));
+        assertEquals(Collections.singletonList("GET /dict/"), notified);
+
+        now++;
+        cache.put("GET /dict/a?", policy, new byte[1], cache.generation());
+        assertNotNull(cache.get("GET /dict/a?"));
+
+        // 代数与时钟无关，同一毫秒内（或时钟回拨时）多次失效，代数仍然递增
+        now -= 1000;
+        cache.invalidate("GET /dict/");
+        cache.invalidate("GET /dict/");
+        assertEquals(3, notified.size());
+        assertTrue(generations.get(2) > generations.get(1));
+        assertTrue(generations.get(1) > generations.get(0));
+        assertEquals(cache.generation(), (long) generations.get(2));
+    }
+
+    @Test
+    public void testPutRacingInvalidate() throws Exception {
+        final ResponseCache cache = cache(100);
+        final ResponseCache.Policy policy = new ResponseCache.Policy("GET /dict/{type}", 60000, null);
+        final long generation = cache.generation();
+        Thread putter;
+        synchronized (cache.stripe("GET /dict/a?")) {
+            // put已取得代数、等待分段的锁时，发生了失效（先设置代数，再清除各分段）
+            putter = new Thread(() -> cache.put("GET /dict/a?", policy, new byte[1], generation));
+            putter.start();
+            while (putter.getState() != Thread.State.BLOCKED) {
+                Thread.yield();
+            }
+            cache.invalidate("GET /dict/");
+        }
+        putter.join();
+        assertNull(cache.get("GET /dict/a?"));
+        assertEquals(0, cache.size());
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RouteCacheTest {
+
+    private RouteTrie.RouteMatch route(String val) {
+        ControllerMatchMeta.MethodMatchMeta cm = new ControllerMatchMeta().new MethodMatchMeta();
+        cm.methodType = "GET";
+        return new RouteTrie.RouteMatch(cm, Collections.singletonList(val));
+    }
+
+    @Test
+    public void testCounters() {
+        RouteCache cache = new RouteCache(100);
+        assertNull(cache.get("GET", "/item/1"));
+        cache.put("GET", "/item/1", route("1"));
+        assertNotNull(cache.get("GET", "/item/1"));
+        assertNull(cache.get("POST", "/item/1"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    private boolean access(RouteCache cache, String url) {
+        if (cache.get("GET", url) != null) {
+            return true;
+        }
+        cache.put("GET", url, route(url));
+        return false;
+    }
+
+    @Test
+    public void testScanResistance() {
+        RouteCache cache = new RouteCache(32);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 32; i++) {
+                access(cache, "/item/hot" + i);
+            }
+        }
+        // 热点条目持续被访问的同时，遍历大量只访问一次的id
+        int hotHits = 0;
+        for (int i = 0; i < 10000; i++) {
+            access(cache, "/item/" + i);
+            if (access(cache, "/item/hot" + (i % 32))) {
+                hotHits++;
+            }
+        }
+        assertTrue("hot hits: " + hotHits, hotHits > 9900);
+        assertTrue(cache.getRejectionCount() > 9000);
+        assertTrue(cache.size() <= 32);
+    }
+
+}
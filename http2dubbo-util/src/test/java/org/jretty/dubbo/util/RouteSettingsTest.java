@@ -0,0 +1,162 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 按路由修改配置的setter：配置中有不存在的路由时整体拒绝，不修改任何路由
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RouteSettingsTest {
+
+    @RestController
+    @RequestMapping("/cfg")
+    public static class DictController {
+        @GetMapping("/list")
+        public List<String> list(@RequestParam("type") String type) {
+            return Arrays.asList(type);
+        }
+
+        @GetMapping("/detail")
+        public String detail(@RequestParam("id") String id) {
+            return id;
+        }
+
+        @GetMapping("/mine")
+        public String mine(@RequestAttribute("user") Object user, @RequestAttribute("app_userId") long userId) {
+            return String.valueOf(userId);
+        }
+    }
+
+    private static SpringControllerInvoke invoker() {
+        StaticApplicationContext ctx = new StaticApplicationContext();
+        ctx.registerSingleton("dictController", DictController.class);
+        ctx.refresh();
+        return new SpringControllerInvoke(ctx);
+    }
+
+    static ControllerMatchMeta.MethodMatchMeta meta(SpringControllerInvoke invoker, String route) {
+        for (ControllerMatchMeta ctrl : invoker.list) {
+            for (ControllerMatchMeta.MethodMatchMeta cm : ctrl.methodMeta) {
+                if (cm.route.equals(route)) {
+                    return cm;
+                }
+            }
+        }
+        throw new IllegalArgumentException(route);
+    }
+
+    /**
+     * @return 按顺序排列的配置，不存在的路由排在最后
+     */
+    private static <V> Map<String, V> config(V list, V detail, V none) {
+        Map<String, V> map = new LinkedHashMap<String, V>();
+        map.put("GET /cfg/list", list);
+        map.put("GET /cfg/detail", detail);
+        if (none != null) {
+            map.put("GET /cfg/none", none);
+        }
+        return map;
+    }
+
+    @Test
+    public void testResponseCacheRoutes() {
+        SpringControllerInvoke invoker = invoker();
+        try {
+            invoker.setResponseCacheRoutes(config(60000L, 1000L, 1000L));
+            fail("route not found");
+        } catch (IllegalArgumentException e) {
+            assertEquals("route not found: [GET /cfg/none]", e.getMessage());
+        }
+        assertNull(meta(invoker, "GET /cfg/list").cachePolicy);
+        assertNull(meta(invoker, "GET /cfg/detail").cachePolicy);
+
+        invoker.setResponseCacheRoutes(config(60000L, 1000L, null));
+        assertEquals(60000L, meta(invoker, "GET /cfg/list").cachePolicy.ttlMillis);
+        assertNotNull(meta(invoker, "GET /cfg/detail").cachePolicy);
+
+        try {
+            invoker.setResponseCacheRoutes(config(0L, 5000L, 1L));
+            fail("route not found");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(60000L, meta(invoker, "GET /cfg/list").cachePolicy.ttlMillis);
+        assertEquals(1000L, meta(invoker, "GET /cfg/detail").cachePolicy.ttlMillis);
+    }
+
+    @Test
+    public void testCoalescedRoutes() {
+        SpringControllerInvoke invoker = invoker();
+        try {
+            invoker.setCoalescedRoutes(config(true, true, true));
+            fail("route not found");
+        } catch (IllegalArgumentException e) {
+            assertEquals("route not found: [GET /cfg/none]", e.getMessage());
+        }
+        assertNull(meta(invoker, "GET /cfg/list").coalesceKey);
+        assertNull(meta(invoker, "GET /cfg/detail").coalesceKey);
+
+        invoker.setCoalescedRoutes(config(true, true, null));
+        RequestKey listKey = meta(invoker, "GET /cfg/list").coalesceKey;
+        assertNotNull(listKey);
+        assertNotNull(meta(invoker, "GET /cfg/detail").coalesceKey);
+
+        try {
+            invoker.setCoalescedRoutes(config(false, false, false));
+            fail("route not found");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertSame(listKey, meta(invoker, "GET /cfg/list").coalesceKey);
+        assertNotNull(meta(invoker, "GET /cfg/detail").coalesceKey);
+    }
+
+    @Test
+    public void testNonScalarAttribute() {
+        SpringControllerInvoke invoker = invoker();
+        // 方法读取了不能计算键的attribute：整体拒绝
+        Map<String, Long> ttl = new LinkedHashMap<String, Long>();
+        ttl.put("GET /cfg/list", 60000L);
+        ttl.put("GET /cfg/mine", 60000L);
+        try {
+            invoker.setResponseCacheRoutes(ttl);
+            fail("non-scalar attribute");
+        } catch (IllegalArgumentException e) {
+            assertEquals("attribute user of GET /cfg/mine is java.lang.Object, "
+                    + "only String and primitive types can be used to cache or coalesce", e.getMessage());
+        }
+        assertNull(meta(invoker, "GET /cfg/list").cachePolicy);
+        assertNull(meta(invoker, "GET /cfg/mine").cachePolicy);
+
+        try {
+            invoker.setCoalescedRoutes(Collections.singletonMap("GET /cfg/mine", true));
+            fail("non-scalar attribute");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertNull(meta(invoker, "GET /cfg/mine").coalesceKey);
+        // 关闭不受限制
+        invoker.setCoalescedRoutes(Collections.singletonMap("GET /cfg/mine", false));
+    }
+
+}
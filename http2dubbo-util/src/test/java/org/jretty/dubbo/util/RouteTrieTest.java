@@ -0,0 +1,107 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class RouteTrieTest {
+
+    private ControllerMatchMeta ctrl = new ControllerMatchMeta();
+
+    private ControllerMatchMeta.MethodMatchMeta meta(String methodType) {
+        ControllerMatchMeta.MethodMatchMeta cm = ctrl.new MethodMatchMeta();
+        cm.methodType = methodType;
+        return cm;
+    }
+
+    @Test
+    public void testStaticAndVar() {
+        RouteTrie trie = new RouteTrie();
+        ControllerMatchMeta.MethodMatchMeta list = meta("GET");
+        ControllerMatchMeta.MethodMatchMeta get = meta("GET");
+        ControllerMatchMeta.MethodMatchMeta item = meta("GET");
+        trie.add("/order/list", "/order", list);
+        trie.add("/order/{}", "/order", get);
+        trie.add("/order/{id}/item/{no}", "/order", item);
+
+        assertSame(list, trie.match("/order/list", "GET").meta);
+        assertEquals(Collections.emptyList(), trie.match("/order/list", "GET").pathVals);
+
+        RouteTrie.RouteMatch rm = trie.match("/order/101", "GET");
+        assertSame(get, rm.meta);
+        assertEquals(Arrays.asList("101"), rm.pathVals);
+
+        rm = trie.match("/order/101/item/7", "GET");
+        assertSame(item, rm.meta);
+        assertEquals(Arrays.asList("101", "7"), rm.pathVals);
+
+        assertNull(trie.match("/order/101/item", "GET"));
+        assertNull(trie.match("/user/list", "GET"));
+    }
+
+    @Test
+    public void testMethodType() {
+        RouteTrie trie = new RouteTrie();
+        ControllerMatchMeta.MethodMatchMeta post = meta("POST");
+        ControllerMatchMeta.MethodMatchMeta all = meta("ALL");
+        trie.add("/role/save", "/role", post);
+        trie.add("/role/{}", "/role", all);
+
+        assertSame(post, trie.match("/role/save", "POST").meta);
+        // 静态段的请求方法不匹配时，回溯到变量段
+        RouteTrie.RouteMatch rm = trie.match("/role/save", "GET");
+        assertSame(all, rm.meta);
+        assertEquals(Arrays.asList("save"), rm.pathVals);
+    }
+
+    @Test
+    public void testTail() {
+        RouteTrie trie = new RouteTrie();
+        ControllerMatchMeta.MethodMatchMeta any = meta("ALL");
+        ControllerMatchMeta.MethodMatchMeta files = meta("GET");
+        ControllerMatchMeta.MethodMatchMeta detail = meta("GET");
+        trie.add(null, "/app", any);
+        trie.add("/static/**", "/", files);
+        trie.add("/app/detail", "/app", detail);
+
+        assertSame(detail, trie.match("/app/detail", "GET").meta);
+        assertSame(any, trie.match("/app/other/path", "GET").meta);
+        assertSame(files, trie.match("/static/js/app.js", "GET").meta);
+        assertNull(trie.match("/static/js/app.js", "POST"));
+    }
+
+    @Test
+    public void testExactIndex() {
+        RouteTrie trie = new RouteTrie();
+        ControllerMatchMeta.MethodMatchMeta all = meta("ALL");
+        ControllerMatchMeta.MethodMatchMeta put = meta("PUT");
+        trie.add("/config/get", "/config", all);
+        trie.add("/config/get", "/config", put);
+
+        assertSame(all, trie.match("/config/get", "GET").meta);
+        assertSame(all, trie.match("/config//get/", "DELETE").meta);
+        assertSame(put, trie.match("/config/get", "PUT").meta);
+        assertSame(all, trie.match("/config/get", "PROPFIND").meta);
+        assertSame(trie.match("/config/get", "GET"), trie.match("/config/get", "POST"));
+    }
+
+    @Test
+    public void testNormalize() {
+        String url = "/a/b";
+        assertSame(url, RouteTrie.normalize(url));
+        assertEquals("/", RouteTrie.normalize(""));
+        assertEquals("/", RouteTrie.normalize("//"));
+        assertEquals("/a/b", RouteTrie.normalize("a//b/"));
+    }
+
+}
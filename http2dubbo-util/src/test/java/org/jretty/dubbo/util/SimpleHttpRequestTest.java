@@ -0,0 +1,70 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+import org.jretty.dubbo.dto.HttpRequestDto;
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class SimpleHttpRequestTest {
+
+    @Test
+    public void testToDtoWithoutCopy() {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod("GET");
+        req.setRequestURI("/user/list");
+        req.setHeader("X-Token", "t-001");
+        req.setParameter("page", "2");
+        req.setAttribute("userId", "u1");
+
+        HttpRequestDto dto = req.toDto();
+        assertTrue(dto.isFrozen());
+        assertSame(dto, req.toDto());
+        assertEquals("t-001", dto.getHeaders().get("x-token"));
+
+        // 服务端直接包装DTO中的Map
+        SimpleHttpRequest wrapped = new SimpleHttpRequest(dto);
+        assertEquals("2", wrapped.getParameter("page"));
+        assertEquals("t-001", wrapped.getHeader("X-TOKEN"));
+        assertEquals(Collections.singletonList("userId"), Collections.list(wrapped.getAttributeNames()));
+    }
+
+    @Test
+    public void testFrozen() {
+        SimpleHttpRequest req = new SimpleHttpRequest();
+        req.setMethod("POST");
+        HttpRequestDto dto = req.toDto();
+        try {
+            req.setHeader("X-Token", "t-002");
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            dto.setMethod("GET");
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertFalse(dto.getHeaders().containsKey("X-Token"));
+        assertEquals("POST", dto.getMethod());
+
+        // 未冻结的DTO（如反序列化得到的）包装后可以修改
+        HttpRequestDto plain = new HttpRequestDto();
+        plain.setAttributes(new LinkedHashMap<String, Object>());
+        SimpleHttpRequest wrapped = new SimpleHttpRequest(plain);
+        wrapped.setAttribute("a", "1");
+        assertEquals("1", plain.getAttributes().get("a"));
+    }
+
+}
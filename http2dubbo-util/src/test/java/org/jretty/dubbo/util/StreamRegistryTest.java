@@ -0,0 +1,143 @@
+package org.jretty.dubbo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.jretty.dubbo.dto.HttpStreamChunk;
+import org.junit.Test;
+
+/**
+ * @author zollty
+ * @since 2026年10月18日
+ */
+public class StreamRegistryTest {
+
+    @Test
+    public void testChunks() throws Exception {
+        List<String> rows = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add("row-" + i);
+        }
+        StreamRegistry registry = new StreamRegistry();
+        registry.setChunkSize(1024);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HttpStreamChunk chunk = registry.open(rows);
+        int chunks = 1;
+        out.write(chunk.getData());
+        while (!chunk.isLast()) {
+            chunk = registry.next(chunk.getStreamId());
+            assertEquals(chunks++, chunk.getSeq());
+            assertTrue(chunk.getData().length < 1024 + 64);
+            out.write(chunk.getData());
+        }
+        assertTrue(chunks > 5);
+        assertEquals(0, registry.size());
+        assertEquals(PrivateJson.toJSONString(rows), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSingleChunk() throws Exception {
+        StreamRegistry registry = new StreamRegistry();
+        HttpStreamChunk chunk = registry.open(Arrays.asList(1, 2, 3).iterator());
+        assertTrue(chunk.isLast());
+        assertNull(chunk.getStreamId());
+        assertEquals(PrivateJson.toJSONString(Arrays.asList(1, 2, 3)),
+                new String(chunk.getData(), StandardCharsets.UTF_8));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testCloseStream() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> stream = IntStream.range(0, 100000).boxed().onClose(() -> closed.set(true));
+        StreamRegistry registry = new StreamRegistry();
+        registry.setChunkSize(256);
+        HttpStreamChunk chunk = registry.open(stream);
+        assertEquals(1, registry.size());
+        registry.close(chunk.getStreamId());
+        assertTrue(closed.get());
+        assertEquals(0, registry.size());
+        try {
+            registry.next(chunk.getStreamId());
+            fail("closed stream");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        StreamRegistry registry = new StreamRegistry();
+        registry.setChunkSize(16);
+        registry.setIdleTimeoutMillis(1000);
+        String id = registry.open(IntStream.range(0, 1000).boxed()).getStreamId();
+        StreamRegistry.Entry idle = registry.streams.get(id);
+        idle.lastAccess -= 2000;
+        registry.open(IntStream.range(0, 1000).boxed());
+        assertEquals(1, registry.size());
+        assertTrue(idle.stream.isClosed());
+    }
+
+    @Test
+    public void testIdleExpiredOnNextAndSize() throws Exception {
+        StreamRegistry registry = new StreamRegistry();
+        registry.setChunkSize(16);
+        String a = registry.open(IntStream.range(0, 1000).boxed()).getStreamId();
+        String b = registry.open(IntStream.range(0, 1000).boxed()).getStreamId();
+        String c = registry.open(IntStream.range(0, 1000).boxed()).getStreamId();
+        assertEquals(3, registry.size());
+
+        // 不再打开新的流，空闲的流也会在拉取其他流时回收
+        StreamRegistry.Entry idle = registry.streams.get(a);
+        idle.lastAccess -= StreamRegistry.DEFAULT_IDLE_TIMEOUT_MILLIS + 1000;
+        assertEquals(1, registry.next(b).getSeq());
+        assertTrue(idle.stream.isClosed());
+        assertFalse(registry.streams.containsKey(a));
+
+        // 以及在查询数量时回收
+        idle = registry.streams.get(c);
+        idle.lastAccess -= StreamRegistry.DEFAULT_IDLE_TIMEOUT_MILLIS + 1000;
+        assertEquals(1, registry.size());
+        assertTrue(idle.stream.isClosed());
+
+        // 空闲超时的流自身被拉取
+        registry.streams.get(b).lastAccess -= StreamRegistry.DEFAULT_IDLE_TIMEOUT_MILLIS + 1000;
+        try {
+            registry.next(b);
+            fail("expired stream");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().startsWith("stream not found or expired"));
+        }
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testExpiredDuringNext() throws Exception {
+        StreamRegistry registry = new StreamRegistry();
+        registry.setChunkSize(16);
+        HttpStreamChunk chunk = registry.open(IntStream.range(0, 1000).boxed());
+        // next取得entry之后，空闲回收关闭了流
+        registry.streams.get(chunk.getStreamId()).stream.close();
+        try {
+            registry.next(chunk.getStreamId());
+            fail("expired stream");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().startsWith("stream expired"));
+        }
+        assertEquals(0, registry.size());
+    }
+
+}